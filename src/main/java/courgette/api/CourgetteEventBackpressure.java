@@ -0,0 +1,6 @@
+package courgette.api;
+
+public enum CourgetteEventBackpressure {
+    BLOCK,
+    DROP_OLDEST
+}
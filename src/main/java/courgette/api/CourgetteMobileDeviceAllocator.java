@@ -4,4 +4,6 @@ public final class CourgetteMobileDeviceAllocator {
     public static final String DEVICE_NAME = System.getProperty("courgette.mobile.device.name");
     public static final String UDID = System.getProperty("courgette.mobile.device.udid");
     public static final int PARALLEL_PORT = Integer.parseInt(System.getProperty("courgette.mobile.device.parallel.port"));
+    public static final boolean WARM_SESSION = Boolean.parseBoolean(System.getProperty("courgette.mobile.device.warm.session"));
+    public static final String SESSION_FILE = System.getProperty("courgette.mobile.device.session.file");
 }
@@ -130,6 +130,86 @@ public @interface CourgetteOptions {
      */
     boolean generateCourgetteRunLog() default false;
 
+    /**
+     * @return the execution mode used to run each feature or scenario
+     */
+    CourgetteExecutionMode executionMode() default CourgetteExecutionMode.PROCESS;
+
+    /**
+     * @return the number of test runs after which a worker JVM is replaced (0 to only replace on failure)
+     */
+    int recycleWorkerAfter() default 0;
+
+    /**
+     * @return true to run the longest features or scenarios first based on the durations of previous test runs
+     */
+    boolean optimizeRunOrder() default false;
+
+    /**
+     * @return true to adjust the number of concurrent threads based on the system load and available memory
+     */
+    boolean adaptiveThreads() default false;
+
+    /**
+     * @return the minimum number of concurrent threads when adaptive threads are enabled
+     */
+    int minThreads() default 1;
+
+    /**
+     * @return true to embed images in the Courgette html report instead of saving them as separate image files
+     */
+    boolean embedHtmlReportImages() default false;
+
+    /**
+     * @return true to create a paginated Courgette html report which loads the scenario details on demand
+     */
+    boolean paginateHtmlReport() default false;
+
+    /**
+     * @return the backpressure used when Slack or Report Portal events are published faster than they are sent
+     */
+    CourgetteEventBackpressure eventBackpressure() default CourgetteEventBackpressure.BLOCK;
+
+    /**
+     * @return the policy used to decide which failed features or scenarios are re-run
+     */
+    CourgetteRerunPolicy rerunPolicy() default CourgetteRerunPolicy.ALWAYS;
+
+    /**
+     * @return the maximum number of re-runs in a test run, 0 for no limit
+     */
+    int rerunBudget() default 0;
+
+    /**
+     * @return a file listing the changed source and feature files, one per line, which is used to only run the features or scenarios affected by the changes
+     */
+    String changedFiles() default "";
+
+    /**
+     * @return the maximum number of scenarios which are run together in one Cucumber invocation, 0 to run each scenario on its own
+     */
+    int scenarioBatchSize() default 0;
+
+    /**
+     * @return the maximum expected duration in seconds of a batch of scenarios, 0 for no limit
+     */
+    int scenarioBatchDuration() default 0;
+
+    /**
+     * @return the port on which the coordinator waits for remote workers, 0 to use a free port
+     */
+    int coordinatorPort() default 0;
+
+    /**
+     * @return the address on which the coordinator waits for remote workers, an empty string to use the loopback address
+     */
+    String coordinatorHost() default "";
+
+    /**
+     * @return the token remote workers must send to the coordinator, required to use an address other than the loopback address
+     */
+    String coordinatorToken() default "";
+
     /**
      * @return the Cucumber options
      */
@@ -73,6 +73,7 @@ public class Courgette extends CourgetteJUnitRunner {
                 }
             }
         } finally {
+            courgetteRunner.deleteReportEmbeddings();
             courgetteRunner.printCourgetteTestStatistics();
             courgetteRunner.printCourgetteTestFailures();
             callbacks.afterAll();
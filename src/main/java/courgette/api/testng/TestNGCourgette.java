@@ -66,6 +66,7 @@ public abstract class TestNGCourgette {
                 }
             }
         } finally {
+            courgetteRunner.deleteReportEmbeddings();
             courgetteRunner.printCourgetteTestStatistics();
             courgetteRunner.printCourgetteTestFailures();
         }
@@ -37,4 +37,9 @@ public class ReportPortalPublisher implements CourgettePublisher {
     public void publish(CourgetteEventHolder eventHolder) {
         eventPublisher.ifPresent(p -> p.publishEvent(eventHolder));
     }
+
+    @Override
+    public boolean isEnabled() {
+        return eventPublisher.isPresent();
+    }
 }
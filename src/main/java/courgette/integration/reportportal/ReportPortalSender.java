@@ -13,13 +13,12 @@ public class ReportPortalSender implements EventSender {
     }
 
     @Override
-    public synchronized void send(CourgetteEventHolder eventHolder) {
+    public void send(CourgetteEventHolder eventHolder) {
         final CourgetteRunnerInfo runnerInfo = eventHolder.getCourgetteRunnerInfo();
 
         switch (eventHolder.getCourgetteEvent()) {
             case TEST_RUN_STARTED:
                 reportPortalService.startLaunch();
-                reportPortalService.startTestSuite();
                 break;
             case TEST_PASSED:
             case TEST_FAILED:
@@ -27,9 +26,7 @@ public class ReportPortalSender implements EventSender {
                 reportPortalService.addTest(runnerInfo);
                 break;
             case TEST_RUN_FINISHED:
-                reportPortalService.finishTestSuite();
                 reportPortalService.finishLaunch();
-                reportPortalService.outputLaunchLink();
                 break;
         }
     }
@@ -4,12 +4,14 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import courgette.integration.reportportal.request.FinishRequest;
 import courgette.integration.reportportal.request.LaunchRequest;
+import courgette.integration.reportportal.request.LogBatchRequest;
 import courgette.integration.reportportal.request.ScenarioLogRequest;
 import courgette.integration.reportportal.request.ScenarioRequest;
 import courgette.integration.reportportal.request.TestRequest;
 import courgette.integration.reportportal.request.TestSuiteRequest;
 import courgette.runtime.CourgetteProperties;
 import courgette.runtime.CourgetteRunnerInfo;
+import courgette.runtime.report.EmbeddingStore;
 import courgette.runtime.report.JsonReportParser;
 import courgette.runtime.report.model.Scenario;
 import courgette.runtime.report.model.Tag;
@@ -17,13 +19,13 @@ import courgette.runtime.utils.FileUtils;
 import io.cucumber.core.gherkin.Feature;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.ssl.SSLContextBuilder;
@@ -32,26 +34,38 @@ import org.apache.http.util.EntityUtils;
 import javax.net.ssl.SSLContext;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static courgette.runtime.CourgetteException.printError;
 
 public class ReportPortalService {
+    private static final int MAX_CONNECTIONS = 10;
 
     private final ReportPortalProperties reportPortalProperties;
     private final CourgetteProperties courgetteProperties;
-    private final HttpClient httpClient;
+    private final CloseableHttpClient httpClient;
+    private final ThreadPoolExecutor executor;
     private final List<Feature> features;
 
     private final ConcurrentHashMap<String, String> testIds = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> testCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> testCounters = new ConcurrentHashMap<>();
+    private final Queue<CompletableFuture<Void>> pendingTests = new ConcurrentLinkedQueue<>();
 
-    private String launchId;
-    private String testSuiteId;
+    private volatile CompletableFuture<Void> launchStarted = CompletableFuture.completedFuture(null);
+    private volatile String launchId;
+    private volatile String testSuiteId;
 
     public ReportPortalService(ReportPortalProperties reportPortalProperties,
                                CourgetteProperties courgetteProperties,
@@ -60,14 +74,52 @@ public class ReportPortalService {
         this.reportPortalProperties = reportPortalProperties;
         this.courgetteProperties = courgetteProperties;
         this.httpClient = createHttpClient();
+        this.executor = createExecutor();
         this.features = features;
     }
 
+    /**
+     * Starts the launch and the test suite in the background. Tests added afterwards are sent once the launch has started.
+     */
     public void startLaunch() {
-        launchId = call(post(apiEndpoint() + "/launch", new LaunchRequest().create(reportPortalProperties)));
+        launchStarted = CompletableFuture.runAsync(() -> {
+            launchId = call(post(apiEndpoint() + "/launch", new LaunchRequest().create(reportPortalProperties)));
+            startTestSuite();
+        }, executor).exceptionally(this::printFailure);
     }
 
-    public void startTestSuite() {
+    /**
+     * Sends the results of the test in the background, so the calling test thread never waits on the Report Portal server.
+     */
+    public void addTest(CourgetteRunnerInfo runnerInfo) {
+        pendingTests.add(launchStarted.thenRunAsync(() -> sendTest(runnerInfo), executor).exceptionally(this::printFailure));
+    }
+
+    /**
+     * Waits for all the tests to be sent, then finishes the test suite and the launch.
+     */
+    public void finishLaunch() {
+        try {
+            launchStarted.join();
+            CompletableFuture.allOf(pendingTests.toArray(new CompletableFuture<?>[0])).join();
+
+            finishTestSuite();
+
+            if (launchId != null) {
+                call(put(apiEndpoint() + "/launch/" + launchId + "/finish", new FinishRequest().create(launchId)));
+            }
+            outputLaunchLink();
+        } finally {
+            executor.shutdown();
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                printError("Courgette Report Portal Service: " + e.getMessage());
+            }
+        }
+    }
+
+    private void startTestSuite() {
         if (launchId != null) {
             testSuiteId = call(post(apiEndpoint() + "/item", new TestSuiteRequest().create(reportPortalProperties.getTestSuite(), launchId)));
         }
@@ -78,7 +130,7 @@ public class ReportPortalService {
         }
     }
 
-    public void addTest(CourgetteRunnerInfo runnerInfo) {
+    private void sendTest(CourgetteRunnerInfo runnerInfo) {
 
         if (testSuiteId != null) {
 
@@ -94,46 +146,51 @@ public class ReportPortalService {
                 return;
             }
 
-            final JsonReportParser jsonReportParser = new JsonReportParser(reportFile.getPath(), courgetteProperties.isFeatureRunLevel());
-            jsonReportParser.createFeatures();
+            final EmbeddingStore embeddingStore = new EmbeddingStore(FileUtils.tempDirectory() + "courgette-embeddings-" + UUID.randomUUID());
+
+            final JsonReportParser jsonReportParser = new JsonReportParser(reportFile.getPath(), courgetteProperties.isFeatureRunLevel(), embeddingStore);
 
-            final List<courgette.runtime.report.model.Feature> features = jsonReportParser.getFeatures();
+            final AtomicLong finishedScenarios = new AtomicLong();
 
-            List<Scenario> scenarios = features.stream()
-                    .flatMap(feature -> feature.getScenarios().stream())
-                    .collect(Collectors.toList());
+            final ScenarioLogs scenarioLogs = new ScenarioLogs();
 
-            for (Scenario scenario : scenarios) {
-                if (testId != null) {
-                    final String scenarioId = startScenario(testId, scenario);
+            try {
+                jsonReportParser.forEachFeature(feature -> {
+                    for (Scenario scenario : feature.getScenarios()) {
+                        if (testId != null) {
+                            final String scenarioId = startScenario(testId, scenario);
 
-                    if (scenarioId != null) {
-                        addScenarioLog(scenarioId, scenario);
-                        finishScenario(scenarioId, scenario.passed() ? "passed" : "failed");
-                        testCounters.put(testName, testCounters.get(testName) - 1);
+                            if (scenarioId != null) {
+                                scenarioLogs.add(scenarioId, scenario);
+                                finishedScenarios.incrementAndGet();
+                            }
+                        }
                     }
-                }
+                });
+            } finally {
+                scenarioLogs.save();
+                embeddingStore.delete();
             }
 
-            if (testCounters.get(testName) <= 0) {
-                finishTest(testId);
+            final AtomicLong testCounter = testCounters.get(testName);
+
+            if (testCounter != null) {
+                final long remaining = testCounter.addAndGet(-finishedScenarios.get());
+
+                if (remaining <= 0 && remaining + finishedScenarios.get() > 0) {
+                    finishTest(testId);
+                }
             }
         }
     }
 
-    public void finishTestSuite() {
+    private void finishTestSuite() {
         if (testSuiteId != null) {
             call(put(apiEndpoint() + "/item/" + testSuiteId, new FinishRequest().create(launchId)));
         }
     }
 
-    public void finishLaunch() {
-        if (launchId != null) {
-            call(put(apiEndpoint() + "/launch/" + launchId + "/finish", new FinishRequest().create(launchId)));
-        }
-    }
-
-    public void outputLaunchLink() {
+    private void outputLaunchLink() {
         if (launchId != null) {
             String id = call(get(apiEndpoint() + "/launch/" + launchId));
 
@@ -165,8 +222,12 @@ public class ReportPortalService {
                         launchId)));
     }
 
-    private void addScenarioLog(String scenarioId, Scenario scenario) {
-        call(post(apiEndpoint() + "/log", new ScenarioLogRequest().create(scenario, scenarioId, launchId)));
+    private void saveLogs(LogBatchRequest logBatchRequest) {
+        try {
+            call(post(apiEndpoint() + "/log", logBatchRequest.create()));
+        } finally {
+            logBatchRequest.deleteAttachments();
+        }
     }
 
     private void finishScenario(String scenarioId, String status) {
@@ -181,8 +242,8 @@ public class ReportPortalService {
         features.stream().map(this::createFeatureName).distinct().sorted().forEach(testName -> testIds.put(testName, startTest(testName)));
     }
 
-    private void createTestCounters(ConcurrentHashMap<String, Long> testCounters, List<Feature> features) {
-        testCounters.putAll(features.stream().map(this::createFeatureName).collect(Collectors.groupingBy(Function.identity(), Collectors.counting())));
+    private void createTestCounters(ConcurrentHashMap<String, AtomicLong> testCounters, List<Feature> features) {
+        features.stream().map(this::createFeatureName).forEach(testName -> testCounters.computeIfAbsent(testName, name -> new AtomicLong()).incrementAndGet());
     }
 
     private String apiEndpoint() {
@@ -213,24 +274,47 @@ public class ReportPortalService {
         return new BasicHeader("Authorization", "bearer " + reportPortalProperties.getApiToken());
     }
 
-    private HttpClient createHttpClient() {
+    private CloseableHttpClient createHttpClient() {
+        final HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(MAX_CONNECTIONS);
+
         try {
             final SSLContext trustedSSLContext = new SSLContextBuilder().loadTrustMaterial(null, TrustAllStrategy.INSTANCE).build();
-            return HttpClientBuilder.create().setSSLContext(trustedSSLContext).build();
+            return httpClientBuilder.setSSLContext(trustedSSLContext).build();
         } catch (Exception e) {
             printError("Courgette Report Portal Service: error creating a secure http client: " + e.getMessage());
         }
 
-        return HttpClientBuilder.create().build();
+        return httpClientBuilder.build();
     }
 
-    private synchronized String call(final HttpUriRequest request) {
+    /**
+     * The queue is unbounded as a task is added for every test run and re-run, so the test threads are never blocked
+     * and the number of concurrent requests is limited by the pool size.
+     */
+    private ThreadPoolExecutor createExecutor() {
+        return new ThreadPoolExecutor(MAX_CONNECTIONS, MAX_CONNECTIONS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "courgette-report-portal");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private Void printFailure(Throwable throwable) {
+        final Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+        printError("Courgette Report Portal Service: " + cause.getMessage());
+        return null;
+    }
+
+    private String call(final HttpUriRequest request) {
         String id = null;
 
         String responseBody;
 
-        try {
-            HttpResponse response = httpClient.execute(request);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
 
             responseBody = EntityUtils.toString(response.getEntity(), "UTF-8");
 
@@ -251,6 +335,42 @@ public class ReportPortalService {
         return id;
     }
 
+    /**
+     * Collects the logs of the scenarios of a test run so they are saved with as few requests as possible.
+     * A scenario is only finished once its logs have been saved, as Report Portal does not accept logs for a finished item.
+     */
+    private class ScenarioLogs {
+        private final List<String> scenarioIds = new ArrayList<>();
+        private final List<String> statuses = new ArrayList<>();
+        private LogBatchRequest logBatch = new LogBatchRequest();
+
+        void add(String scenarioId, Scenario scenario) {
+            logBatch.add(new ScenarioLogRequest().create(scenario, scenarioId, launchId));
+            scenarioIds.add(scenarioId);
+            statuses.add(scenario.passed() ? "passed" : "failed");
+
+            if (logBatch.isFull()) {
+                save();
+            }
+        }
+
+        void save() {
+            try {
+                if (!logBatch.isEmpty()) {
+                    saveLogs(logBatch);
+                }
+            } finally {
+                logBatch = new LogBatchRequest();
+
+                for (int i = 0; i < scenarioIds.size(); i++) {
+                    finishScenario(scenarioIds.get(i), statuses.get(i));
+                }
+                scenarioIds.clear();
+                statuses.clear();
+            }
+        }
+    }
+
     private final Predicate<Integer> isSuccessfulCall = (status) -> status == 200 || status == 201;
 
     private String rpServerUrl() {
@@ -0,0 +1,59 @@
+package courgette.integration.reportportal.request;
+
+import com.google.gson.JsonArray;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.StringBody;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the logs of one or more scenarios so they can be saved with a single request to the batch log endpoint.
+ */
+public class LogBatchRequest {
+    private static final int MAX_LOGS = 200;
+    private static final long MAX_ATTACHMENT_SIZE = 16 * 1024 * 1024;
+
+    private final JsonArray logArray = new JsonArray();
+    private final List<File> fileAttachments = new ArrayList<>();
+    private long attachmentSize;
+
+    void addLogs(JsonArray logs, List<File> attachments) {
+        logArray.addAll(logs);
+        attachments.forEach(this::addAttachment);
+    }
+
+    public void add(LogBatchRequest batch) {
+        addLogs(batch.logArray, batch.fileAttachments);
+    }
+
+    public boolean isEmpty() {
+        return logArray.size() == 0;
+    }
+
+    public boolean isFull() {
+        return logArray.size() >= MAX_LOGS || attachmentSize >= MAX_ATTACHMENT_SIZE;
+    }
+
+    public HttpEntity create() {
+        MultipartEntityBuilder mb = MultipartEntityBuilder.create()
+                .addPart("json_request_part", new StringBody(logArray.toString(), ContentType.APPLICATION_JSON));
+
+        fileAttachments.forEach(f -> mb.addPart("file", new FileBody(f, ContentType.IMAGE_PNG)));
+
+        return mb.build();
+    }
+
+    public void deleteAttachments() {
+        fileAttachments.forEach(File::delete);
+    }
+
+    private void addAttachment(File attachment) {
+        fileAttachments.add(attachment);
+        attachmentSize += attachment.length();
+    }
+}
@@ -7,24 +7,20 @@ import courgette.runtime.report.model.Hook;
 import courgette.runtime.report.model.Result;
 import courgette.runtime.report.model.Scenario;
 import courgette.runtime.utils.FileUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.entity.mime.content.FileBody;
-import org.apache.http.entity.mime.content.StringBody;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
 public class ScenarioLogRequest {
 
-    public HttpEntity create(final Scenario scenario, final String scenarioId, final String launchId) {
+    public LogBatchRequest create(final Scenario scenario, final String scenarioId, final String launchId) {
 
         List<File> fileAttachments = new ArrayList<>();
 
@@ -36,12 +32,10 @@ public class ScenarioLogRequest {
         addSteps(logArray, scenario, launchId, scenarioId, startTime, fileAttachments);
         addHooks(logArray, scenario.getAfter(), launchId, scenarioId, startTime, 1000, fileAttachments);
 
-        MultipartEntityBuilder mb = MultipartEntityBuilder.create()
-                .addPart("json_request_part", new StringBody(logArray.toString(), ContentType.APPLICATION_JSON));
+        final LogBatchRequest logBatchRequest = new LogBatchRequest();
+        logBatchRequest.addLogs(logArray, fileAttachments);
 
-        fileAttachments.forEach(f -> mb.addPart("file", new FileBody(f, ContentType.IMAGE_PNG)));
-
-        return mb.build();
+        return logBatchRequest;
     }
 
     private static void addSteps(JsonArray logArray,
@@ -96,15 +90,11 @@ public class ScenarioLogRequest {
 
         if (image.isPresent()) {
 
-            final byte[] decodedBytes = Base64.getDecoder().decode(image.get().getData());
-
-            try {
+            try (InputStream imageData = image.get().openStream()) {
                 final File imageAttachment = FileUtils.getTempFile("png");
                 fileAttachments.add(imageAttachment);
 
-                final FileOutputStream fos = new FileOutputStream(imageAttachment);
-                fos.write(decodedBytes);
-                fos.close();
+                Files.copy(imageData, imageAttachment.toPath(), StandardCopyOption.REPLACE_EXISTING);
 
                 final JsonObject fileBody = new JsonObject();
                 fileBody.addProperty("name", imageAttachment.getName());
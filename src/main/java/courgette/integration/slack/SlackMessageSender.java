@@ -18,30 +18,109 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static courgette.runtime.CourgetteException.printError;
 import static courgette.runtime.CourgetteException.printExceptionStackTrace;
 
 public class SlackMessageSender implements EventSender {
+    private static final int DIGEST_SIZE = 20;
+    private static final long DIGEST_INTERVAL_SECONDS = 10;
 
     private final SlackService slackService;
     private final CourgetteSlackOptions slackOptions;
     private final Mustache messageTemplate;
     private final Mustache summaryTemplate;
+    private final Mustache digestTemplate;
+
+    private final List<CourgetteEventHolder> pendingResults = new ArrayList<>();
+    private final ScheduledExecutorService digestScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "courgette-slack-digest");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> scheduledDigest;
 
     public SlackMessageSender(SlackService slackService, CourgetteSlackOptions slackOptions) {
         this.slackService = slackService;
         this.slackOptions = slackOptions;
         this.messageTemplate = readTemplate("/slack/message.mustache");
         this.summaryTemplate = readTemplate("/slack/summary.mustache");
+        this.digestTemplate = readTemplate("/slack/digest.mustache");
     }
 
+    /**
+     * Test results are collected and posted as a digest once there are enough of them or after a few seconds,
+     * while the other events flush the pending results first so the messages stay in order.
+     */
     @Override
-    public void send(CourgetteEventHolder eventHolder) {
-        slackOptions.getChannels().forEach(channel -> createMessage(channel, eventHolder).ifPresent(slackService::postMessage));
+    public synchronized void send(CourgetteEventHolder eventHolder) {
+        if (isResultEvent(eventHolder)) {
+            addResult(eventHolder);
+        } else {
+            flush();
+            slackOptions.getChannels().forEach(channel -> createMessage(channel, eventHolder).ifPresent(slackService::postMessage));
+        }
+    }
+
+    public synchronized void flush() {
+        if (scheduledDigest != null) {
+            scheduledDigest.cancel(false);
+            scheduledDigest = null;
+        }
+
+        if (pendingResults.isEmpty()) {
+            return;
+        }
+
+        final List<CourgetteEventHolder> results = new ArrayList<>(pendingResults);
+        pendingResults.clear();
+
+        slackOptions.getChannels().forEach(channel -> {
+            final Optional<String> message = results.size() == 1
+                    ? createMessage(channel, results.get(0))
+                    : createDigest(channel, results);
+
+            message.ifPresent(slackService::postMessage);
+        });
+    }
+
+    public void close() {
+        flush();
+        digestScheduler.shutdown();
+    }
+
+    private void addResult(CourgetteEventHolder eventHolder) {
+        pendingResults.add(eventHolder);
+
+        if (pendingResults.size() >= DIGEST_SIZE) {
+            flush();
+        } else if (scheduledDigest == null) {
+            try {
+                scheduledDigest = digestScheduler.schedule(this::flush, DIGEST_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    private Optional<String> createDigest(String channel, List<CourgetteEventHolder> results) {
+        try {
+            return Optional.of(createFromTemplate(digestTemplate, createDigestData(channel, results)));
+        } catch (Exception e) {
+            printError("Courgette Slack Message: There was an error creating the slack message -> " + e.getMessage());
+        }
+
+        return Optional.empty();
     }
 
     private Optional<String> createMessage(String channel, CourgetteEventHolder eventHolder) {
@@ -66,6 +145,18 @@ public class SlackMessageSender implements EventSender {
                 || eventHolder.getCourgetteEvent().equals(CourgetteEvent.TEST_RUN_FINISHED);
     }
 
+    private boolean isResultEvent(CourgetteEventHolder eventHolder) {
+        switch (eventHolder.getCourgetteEvent()) {
+            case TEST_PASSED:
+            case TEST_PASSED_AFTER_RERUN:
+            case TEST_FAILED:
+            case TEST_RERUN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private boolean isTestRunSummaryEvent(CourgetteEventHolder eventHolder) {
         return eventHolder.getCourgetteEvent().equals(CourgetteEvent.TEST_RUN_SUMMARY);
     }
@@ -82,6 +173,46 @@ public class SlackMessageSender implements EventSender {
         return data;
     }
 
+    private Map<String, Object> createDigestData(String channel, List<CourgetteEventHolder> results) {
+        final List<Map<String, Object>> resultData = new ArrayList<>();
+        int passed = 0;
+        int failed = 0;
+        int rerun = 0;
+
+        for (CourgetteEventHolder result : results) {
+            final HashMap<String, Object> section = new HashMap<>();
+            addOptional(section, result);
+            addIcon(section, result.getCourgetteEvent());
+
+            if (!isRerun(result.getCourgetteRunResult())) {
+                section.remove("optional2");
+            }
+            resultData.add(section);
+
+            switch (result.getCourgetteEvent()) {
+                case TEST_PASSED:
+                case TEST_PASSED_AFTER_RERUN:
+                    passed++;
+                    break;
+                case TEST_FAILED:
+                    failed++;
+                    break;
+                case TEST_RERUN:
+                    rerun++;
+                    break;
+            }
+        }
+
+        final HashMap<String, Object> data = createDefaultData(channel, results.get(0));
+        data.put("description", "Test Results");
+        data.put("icon", "clipboard");
+        data.put("results", resultData);
+        data.put("passed", passed);
+        data.put("failed", failed);
+        data.put("rerun", rerun);
+        return data;
+    }
+
     private Map<String, Object> createSummaryMessageData(String channel, CourgetteEventHolder eventHolder) {
         CourgetteTestStatistics testStatistics = eventHolder.getCourgetteTestStatistics();
 
@@ -1,5 +1,6 @@
 package courgette.integration.slack;
 
+import courgette.runtime.event.CourgetteEvent;
 import courgette.runtime.event.CourgetteEventHolder;
 import courgette.runtime.CourgetteProperties;
 import courgette.runtime.CourgettePublisher;
@@ -13,6 +14,7 @@ import java.util.Optional;
 public class SlackPublisher implements CourgettePublisher {
 
     private Optional<EventPublisher> eventPublisher = Optional.empty();
+    private SlackMessageSender messageSender;
 
     public SlackPublisher(CourgetteProperties courgetteProperties) {
 
@@ -21,7 +23,9 @@ public class SlackPublisher implements CourgettePublisher {
 
             final SlackService slackService = new SlackService(slackOptions.getWebhookUrl());
 
-            eventPublisher = Optional.of(new EventPublisher(new SlackMessageSender(slackService, slackOptions)));
+            messageSender = new SlackMessageSender(slackService, slackOptions);
+
+            eventPublisher = Optional.of(new EventPublisher(messageSender));
 
             EventSubscriberCreator.createEventSubscribers(eventPublisher.get(), Arrays.asList(courgetteProperties.getCourgetteOptions().slackEventSubscription()));
         }
@@ -30,5 +34,14 @@ public class SlackPublisher implements CourgettePublisher {
     @Override
     public void publish(CourgetteEventHolder eventHolder) {
         eventPublisher.ifPresent(p -> p.publishEvent(eventHolder));
+
+        if (messageSender != null && eventHolder.getCourgetteEvent().equals(CourgetteEvent.TEST_RUN_FINISHED)) {
+            messageSender.close();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return eventPublisher.isPresent();
     }
 }
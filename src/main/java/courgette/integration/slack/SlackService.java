@@ -1,54 +1,109 @@
 package courgette.integration.slack;
 
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.EntityBuilder;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.conn.ssl.TrustAllStrategy;
 import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.util.EntityUtils;
 
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import static courgette.runtime.CourgetteException.printError;
 
 public class SlackService {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int MAX_RETRIES = 3;
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+    private static final double MESSAGES_PER_SECOND = 1;
+    private static final double MAX_BURST = 3;
 
     private final String webhookUrl;
+    private final CloseableHttpClient httpClient;
+
+    private double availableMessages = MAX_BURST;
+    private long lastRefill = System.nanoTime();
 
     public SlackService(String webhookUrl) {
         this.webhookUrl = webhookUrl;
+        this.httpClient = createHttpClient();
     }
 
+    /**
+     * Posts the message within the Slack rate limit for incoming webhooks and retries the message
+     * after the time given by Slack when it is rate limited.
+     */
     public synchronized void postMessage(String message) {
-        HttpClient client = createHttpClient();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                acquirePermit();
 
-        HttpEntity entity = EntityBuilder
-                .create()
-                .setContentType(ContentType.APPLICATION_JSON)
-                .setText(message)
-                .build();
+                HttpEntity entity = EntityBuilder
+                        .create()
+                        .setContentType(ContentType.APPLICATION_JSON)
+                        .setText(message)
+                        .build();
 
-        HttpPost post = new HttpPost(webhookUrl);
-        post.setEntity(entity);
+                HttpPost post = new HttpPost(webhookUrl);
+                post.setEntity(entity);
 
-        try {
-            HttpResponse result = client.execute(post);
+                try (CloseableHttpResponse result = httpClient.execute(post)) {
+                    final int statusCode = result.getStatusLine().getStatusCode();
+                    final String body = result.getEntity() != null ? EntityUtils.toString(result.getEntity(), "UTF-8") : "";
+
+                    if (statusCode == TOO_MANY_REQUESTS && attempt < MAX_RETRIES) {
+                        TimeUnit.SECONDS.sleep(getRetryAfterSeconds(result.getFirstHeader("Retry-After")));
+                        continue;
+                    }
 
-            if (result != null && result.getStatusLine().getStatusCode() != 200) {
-                String body = EntityUtils.toString(result.getEntity(), "UTF-8");
-                printError("Courgette Slack Service: error sending message to Slack channel -> " + body);
+                    if (statusCode != 200) {
+                        printError("Courgette Slack Service: error sending message to Slack channel -> " + body);
+                    }
+                    return;
+                }
             }
         } catch (IOException e) {
             printError("Courgette Slack Service: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acquirePermit() throws InterruptedException {
+        refill();
+
+        if (availableMessages < 1) {
+            TimeUnit.NANOSECONDS.sleep((long) ((1 - availableMessages) / MESSAGES_PER_SECOND * TimeUnit.SECONDS.toNanos(1)));
+            refill();
+        }
+        availableMessages = Math.max(0, availableMessages - 1);
+    }
+
+    private void refill() {
+        final long now = System.nanoTime();
+        availableMessages = Math.min(MAX_BURST, availableMessages + (now - lastRefill) * MESSAGES_PER_SECOND / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+    }
+
+    private long getRetryAfterSeconds(Header retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return Math.min(MAX_RETRY_AFTER_SECONDS, Math.max(0, Long.parseLong(retryAfter.getValue().trim())));
+            } catch (NumberFormatException ignored) {
+            }
         }
+        return DEFAULT_RETRY_AFTER_SECONDS;
     }
 
-    private HttpClient createHttpClient() {
+    private CloseableHttpClient createHttpClient() {
         try {
             SSLContext trustedSSLContext = new SSLContextBuilder().loadTrustMaterial(null, TrustAllStrategy.INSTANCE).build();
             return HttpClientBuilder.create().setSSLContext(trustedSSLContext).build();
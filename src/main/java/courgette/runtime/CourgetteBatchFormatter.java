@@ -0,0 +1,307 @@
+package courgette.runtime;
+
+import io.cucumber.core.plugin.JUnitFormatter;
+import io.cucumber.core.plugin.JsonFormatter;
+import io.cucumber.core.plugin.MessageFormatter;
+import io.cucumber.core.plugin.RerunFormatter;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.Source;
+import io.cucumber.messages.types.TableRow;
+import io.cucumber.messages.types.TestRunFinished;
+import io.cucumber.messages.types.TestRunStarted;
+import io.cucumber.messages.types.Timestamp;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.Event;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseEvent;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestSourceParsed;
+import io.cucumber.plugin.event.TestSourceRead;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A Cucumber plugin used when a batch of scenarios is run in one Cucumber invocation.
+ * Each scenario of the batch gets its own report plugins, so the reports and the result of each scenario are the same as when the scenario is run on its own.
+ */
+public class CourgetteBatchFormatter implements ConcurrentEventListener {
+    private final Map<URI, Map<Integer, ScenarioPublisher>> scenarios = new HashMap<>();
+    private final List<ScenarioPublisher> publishers = new ArrayList<>();
+    private final Map<String, Integer> astNodeLines = new ConcurrentHashMap<>();
+    private final Map<String, ScenarioPublisher> publishersById = new ConcurrentHashMap<>();
+    private final Properties results = new Properties();
+    private final File resultFile;
+
+    public CourgetteBatchFormatter(File batchFile) throws IOException {
+        final Properties batch = CourgetteScenarioBatch.readBatchFile(batchFile);
+
+        resultFile = new File(batch.getProperty(CourgetteScenarioBatch.RESULT_FILE));
+
+        final int scenarioCount = Integer.parseInt(batch.getProperty(CourgetteScenarioBatch.SCENARIOS));
+
+        for (int scenario = 0; scenario < scenarioCount; scenario++) {
+            final ScenarioPublisher publisher = new ScenarioPublisher(scenario);
+
+            for (int plugin = 0; batch.containsKey(scenario + ".plugin." + plugin); plugin++) {
+                publisher.addPlugin(batch.getProperty(scenario + ".plugin." + plugin));
+            }
+
+            scenarios.computeIfAbsent(URI.create(batch.getProperty(scenario + ".uri")), uri -> new HashMap<>())
+                    .put(Integer.parseInt(batch.getProperty(scenario + ".line")), publisher);
+            publishers.add(publisher);
+        }
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(Event.class, this::handleEvent);
+        publisher.registerHandlerFor(Envelope.class, this::handleEnvelope);
+    }
+
+    private void handleEvent(Event event) {
+        if (event instanceof TestCaseEvent) {
+            final TestCase testCase = ((TestCaseEvent) event).getTestCase();
+            getPublisher(testCase.getUri(), testCase.getLocation().getLine()).ifPresent(publisher -> {
+                publisher.send(event);
+
+                if (event instanceof TestCaseStarted) {
+                    results.setProperty(publisher.scenario + ".start", String.valueOf(event.getInstant().toEpochMilli()));
+                } else if (event instanceof TestCaseFinished) {
+                    final TestCaseFinished testCaseFinished = (TestCaseFinished) event;
+                    results.setProperty(publisher.scenario + ".status", testCaseFinished.getResult().getStatus().isOk() ? "PASSED" : "FAILED");
+                    results.setProperty(publisher.scenario + ".end", String.valueOf(event.getInstant().toEpochMilli()));
+                }
+            });
+        } else if (event instanceof TestSourceRead) {
+            getPublishers(((TestSourceRead) event).getUri()).forEach(publisher -> publisher.send(event));
+        } else if (event instanceof TestSourceParsed) {
+            getPublishers(((TestSourceParsed) event).getUri()).forEach(publisher -> publisher.send(event));
+        } else {
+            publishers.forEach(publisher -> publisher.send(event));
+
+            if (event instanceof io.cucumber.plugin.event.TestRunFinished) {
+                saveResults();
+            }
+        }
+    }
+
+    private void handleEnvelope(Envelope envelope) {
+        envelope.getGherkinDocument().ifPresent(this::addAstNodeLines);
+        envelope.getPickle().ifPresent(pickle -> getPublisher(pickle).ifPresent(publisher -> publishersById.put(pickle.getId(), publisher)));
+        envelope.getTestCase().ifPresent(testCase -> linkId(testCase.getId(), testCase.getPickleId()));
+        envelope.getTestCaseStarted().ifPresent(testCaseStarted -> linkId(testCaseStarted.getId(), testCaseStarted.getTestCaseId()));
+
+        final Optional<URI> sourceUri = Stream.of(
+                        envelope.getSource().map(Source::getUri),
+                        envelope.getGherkinDocument().flatMap(GherkinDocument::getUri),
+                        envelope.getPickle().map(Pickle::getUri),
+                        envelope.getParseError().flatMap(parseError -> parseError.getSource().getUri()))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst()
+                .map(URI::create);
+
+        final Optional<String> id = Stream.of(
+                        envelope.getTestCase().map(testCase -> testCase.getId()),
+                        envelope.getTestCaseStarted().map(testCaseStarted -> testCaseStarted.getId()),
+                        envelope.getTestStepStarted().map(testStepStarted -> testStepStarted.getTestCaseStartedId()),
+                        envelope.getTestStepFinished().map(testStepFinished -> testStepFinished.getTestCaseStartedId()),
+                        envelope.getTestCaseFinished().map(testCaseFinished -> testCaseFinished.getTestCaseStartedId()),
+                        envelope.getAttachment().flatMap(attachment -> attachment.getTestCaseStartedId()))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+
+        if (sourceUri.isPresent()) {
+            getPublishers(sourceUri.get()).forEach(publisher -> publisher.send(envelope));
+        } else if (id.isPresent()) {
+            Optional.ofNullable(publishersById.get(id.get())).ifPresent(publisher -> publisher.send(envelope));
+        } else {
+            publishers.forEach(publisher -> publisher.send(envelope));
+        }
+    }
+
+    private void addAstNodeLines(GherkinDocument gherkinDocument) {
+        gherkinDocument.getFeature().ifPresent(feature -> {
+            for (FeatureChild child : feature.getChildren()) {
+                child.getScenario().ifPresent(this::addAstNodeLines);
+                child.getRule().ifPresent(rule -> rule.getChildren().stream()
+                        .map(RuleChild::getScenario)
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .forEach(this::addAstNodeLines));
+            }
+        });
+    }
+
+    private void addAstNodeLines(Scenario scenario) {
+        astNodeLines.put(scenario.getId(), scenario.getLocation().getLine().intValue());
+
+        for (Examples examples : scenario.getExamples()) {
+            for (TableRow row : examples.getTableBody()) {
+                astNodeLines.put(row.getId(), row.getLocation().getLine().intValue());
+            }
+        }
+    }
+
+    private void linkId(String id, String parentId) {
+        Optional.ofNullable(publishersById.get(parentId)).ifPresent(publisher -> publishersById.put(id, publisher));
+    }
+
+    private Optional<ScenarioPublisher> getPublisher(Pickle pickle) {
+        final List<String> astNodeIds = pickle.getAstNodeIds();
+        final Integer line = astNodeIds.isEmpty() ? null : astNodeLines.get(astNodeIds.get(astNodeIds.size() - 1));
+        return line != null ? getPublisher(URI.create(pickle.getUri()), line) : Optional.empty();
+    }
+
+    private Optional<ScenarioPublisher> getPublisher(URI uri, Integer line) {
+        return Optional.ofNullable(scenarios.getOrDefault(uri, Collections.emptyMap()).get(line));
+    }
+
+    private Iterable<ScenarioPublisher> getPublishers(URI uri) {
+        return scenarios.getOrDefault(uri, Collections.emptyMap()).values();
+    }
+
+    private void saveResults() {
+        try (OutputStream outputStream = new FileOutputStream(resultFile)) {
+            results.store(outputStream, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends the events of one scenario to the report plugins of the scenario. The test run messages are given the time the scenario
+     * started and finished, so the duration of the test run in the reports is the duration of the scenario and not of the batch.
+     * The messages which follow the test run started message are held back until the scenario has started.
+     */
+    private static class ScenarioPublisher implements EventPublisher {
+        private final int scenario;
+        private final Map<Class<?>, List<EventHandler<?>>> handlers = new ConcurrentHashMap<>();
+        private final List<Envelope> pendingEnvelopes = new ArrayList<>();
+        private Envelope testRunStarted;
+        private Timestamp testCaseFinished;
+
+        ScenarioPublisher(int scenario) {
+            this.scenario = scenario;
+        }
+
+        void addPlugin(String plugin) {
+            final String type = plugin.substring(0, plugin.indexOf(':'));
+            final File file = new File(plugin.substring(plugin.indexOf(':') + 1));
+
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+
+            final OutputStream outputStream;
+            try {
+                outputStream = new FileOutputStream(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            switch (type) {
+                case "json":
+                    new JsonFormatter(outputStream).setEventPublisher(this);
+                    break;
+                case "message":
+                    new MessageFormatter(outputStream).setEventPublisher(this);
+                    break;
+                case "junit":
+                    new JUnitFormatter(outputStream).setEventPublisher(this);
+                    break;
+                case "rerun":
+                    new RerunFormatter(outputStream).setEventPublisher(this);
+                    break;
+                default:
+                    throw new CourgetteException("Courgette: Unsupported batch report plugin " + plugin);
+            }
+        }
+
+        @Override
+        public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+            handlers.computeIfAbsent(eventType, type -> new ArrayList<>()).add(handler);
+        }
+
+        @Override
+        public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+            handlers.getOrDefault(eventType, new ArrayList<>()).remove(handler);
+        }
+
+        synchronized void send(Object event) {
+            if (!(event instanceof Envelope)) {
+                dispatch(event);
+                return;
+            }
+
+            final Envelope envelope = (Envelope) event;
+
+            if (envelope.getTestRunStarted().isPresent()) {
+                testRunStarted = envelope;
+                return;
+            }
+
+            if (testRunStarted != null) {
+                if (envelope.getTestCaseStarted().isPresent()) {
+                    startTestRun(envelope.getTestCaseStarted().get().getTimestamp());
+                } else if (envelope.getTestRunFinished().isPresent()) {
+                    startTestRun(testRunStarted.getTestRunStarted().get().getTimestamp());
+                } else {
+                    pendingEnvelopes.add(envelope);
+                    return;
+                }
+            }
+
+            envelope.getTestCaseFinished().ifPresent(finished -> testCaseFinished = finished.getTimestamp());
+
+            if (envelope.getTestRunFinished().isPresent() && testCaseFinished != null) {
+                final TestRunFinished testRunFinished = envelope.getTestRunFinished().get();
+                dispatch(Envelope.of(new TestRunFinished(testRunFinished.getMessage().orElse(null), testRunFinished.getSuccess(),
+                        testCaseFinished, testRunFinished.getException().orElse(null), testRunFinished.getTestRunStartedId().orElse(null))));
+                return;
+            }
+            dispatch(envelope);
+        }
+
+        private void startTestRun(Timestamp timestamp) {
+            final TestRunStarted started = testRunStarted.getTestRunStarted().get();
+            testRunStarted = null;
+
+            dispatch(Envelope.of(new TestRunStarted(timestamp, started.getId().orElse(null))));
+            pendingEnvelopes.forEach(this::dispatch);
+            pendingEnvelopes.clear();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void dispatch(Object event) {
+            if (event instanceof Event) {
+                handlers.getOrDefault(Event.class, Collections.emptyList()).forEach(handler -> ((EventHandler<Object>) handler).receive(event));
+            }
+            handlers.getOrDefault(event.getClass(), Collections.emptyList()).forEach(handler -> ((EventHandler<Object>) handler).receive(event));
+        }
+    }
+}
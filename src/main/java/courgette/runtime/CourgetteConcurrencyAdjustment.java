@@ -0,0 +1,66 @@
+package courgette.runtime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.sql.Timestamp;
+
+public class CourgetteConcurrencyAdjustment {
+    private final Timestamp timestamp;
+    private final int previousConcurrency;
+    private final int concurrency;
+    private final double loadAverage;
+    private final int processors;
+    private final long freeMemory;
+    private final long testProcessMemory;
+
+    public CourgetteConcurrencyAdjustment(Timestamp timestamp,
+                                          int previousConcurrency,
+                                          int concurrency,
+                                          double loadAverage,
+                                          int processors,
+                                          long freeMemory,
+                                          long testProcessMemory) {
+        this.timestamp = timestamp;
+        this.previousConcurrency = previousConcurrency;
+        this.concurrency = concurrency;
+        this.loadAverage = loadAverage;
+        this.processors = processors;
+        this.freeMemory = freeMemory;
+        this.testProcessMemory = testProcessMemory;
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    public Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    public int getPreviousConcurrency() {
+        return previousConcurrency;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getLoadAverage() {
+        return loadAverage;
+    }
+
+    public int getProcessors() {
+        return processors;
+    }
+
+    /**
+     * @return the available physical memory in MB
+     */
+    public long getFreeMemory() {
+        return freeMemory;
+    }
+
+    /**
+     * @return the average memory in MB used by each test process
+     */
+    public long getTestProcessMemory() {
+        return testProcessMemory;
+    }
+}
@@ -0,0 +1,202 @@
+package courgette.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of concurrent test runs between a floor and a ceiling based on the system load average,
+ * the available physical memory and the memory used by the child processes of this JVM.
+ */
+class CourgetteConcurrencyController {
+    private static final long SAMPLE_INTERVAL_SECONDS = 10;
+    private static final long ADJUSTMENT_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final double MIN_FREE_MEMORY_RATIO = 0.1;
+
+    private final int minThreads;
+    private final int maxThreads;
+    private final ConcurrencyLimit permits;
+    private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "courgette-concurrency-controller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<CourgetteConcurrencyAdjustment> adjustments = new ConcurrentLinkedQueue<>();
+    private volatile int concurrency;
+    private long lastAdjustment;
+
+    CourgetteConcurrencyController(int minThreads, int maxThreads) {
+        this.maxThreads = Math.max(maxThreads, 1);
+        this.minThreads = Math.max(1, Math.min(minThreads, this.maxThreads));
+        this.concurrency = this.maxThreads;
+        this.permits = new ConcurrencyLimit(this.maxThreads);
+    }
+
+    void start() {
+        lastAdjustment = System.currentTimeMillis();
+        scheduler.scheduleWithFixedDelay(this::adjust, SAMPLE_INTERVAL_SECONDS, SAMPLE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return the adjustments made since {@link #pollAdjustments()} was last called
+     */
+    List<CourgetteConcurrencyAdjustment> stop() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(SAMPLE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return pollAdjustments();
+    }
+
+    void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return the adjustments made since this method was last called
+     */
+    List<CourgetteConcurrencyAdjustment> pollAdjustments() {
+        final List<CourgetteConcurrencyAdjustment> polledAdjustments = new ArrayList<>();
+        CourgetteConcurrencyAdjustment adjustment;
+        while ((adjustment = adjustments.poll()) != null) {
+            polledAdjustments.add(adjustment);
+        }
+        return polledAdjustments;
+    }
+
+    private void adjust() {
+        if (System.currentTimeMillis() - lastAdjustment < ADJUSTMENT_INTERVAL_MILLIS) {
+            return;
+        }
+
+        final double loadAverage = operatingSystem.getSystemLoadAverage();
+        final int processors = operatingSystem.getAvailableProcessors();
+        final long totalMemory = getTotalMemory();
+        final long freeMemory = getFreeMemory();
+        final List<Long> childMemory = getChildProcessMemory();
+
+        final long memoryPerRun = childMemory.isEmpty() ? 0 : childMemory.stream().mapToLong(Long::longValue).sum() / childMemory.size();
+        final long requiredMemory = Math.max(memoryPerRun, (long) (totalMemory * MIN_FREE_MEMORY_RATIO));
+
+        final boolean cpuOverloaded = loadAverage > processors;
+        final boolean cpuAvailable = loadAverage >= 0 && loadAverage < processors * 0.7;
+        final boolean memoryLow = freeMemory >= 0 && freeMemory < requiredMemory;
+        final boolean memoryAvailable = freeMemory < 0 || freeMemory > requiredMemory * 2;
+
+        int newConcurrency = concurrency;
+
+        if ((cpuOverloaded || memoryLow) && concurrency > minThreads) {
+            newConcurrency = concurrency - 1;
+            permits.reducePermits(1);
+        } else if (cpuAvailable && memoryAvailable && concurrency < maxThreads) {
+            newConcurrency = concurrency + 1;
+            permits.release();
+        }
+
+        if (newConcurrency != concurrency) {
+            adjustments.add(new CourgetteConcurrencyAdjustment(Timestamp.from(Instant.now()), concurrency, newConcurrency,
+                    loadAverage, processors, toMegabytes(freeMemory), toMegabytes(memoryPerRun)));
+            concurrency = newConcurrency;
+            lastAdjustment = System.currentTimeMillis();
+        }
+    }
+
+    // the replacements of the physical memory methods are not available in Java 8
+    @SuppressWarnings("deprecation")
+    private long getTotalMemory() {
+        if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystem).getTotalPhysicalMemorySize();
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("deprecation")
+    private long getFreeMemory() {
+        final long availableMemory = readProcValue(new File("/proc/meminfo"), "MemAvailable:");
+
+        if (availableMemory >= 0) {
+            return availableMemory;
+        }
+        if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystem).getFreePhysicalMemorySize();
+        }
+        return -1;
+    }
+
+    private List<Long> getChildProcessMemory() {
+        final List<Long> childMemory = new ArrayList<>();
+        final String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+        final File[] tasks = new File("/proc/" + pid + "/task").listFiles();
+
+        if (tasks != null) {
+            for (File task : tasks) {
+                try {
+                    final String children = new String(Files.readAllBytes(new File(task, "children").toPath()), StandardCharsets.UTF_8).trim();
+                    if (!children.isEmpty()) {
+                        for (String child : children.split("\\s+")) {
+                            final long rss = readProcValue(new File("/proc/" + child + "/status"), "VmRSS:");
+                            if (rss >= 0) {
+                                childMemory.add(rss);
+                            }
+                        }
+                    }
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        return childMemory;
+    }
+
+    private long readProcValue(File file, String key) {
+        try {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                if (line.startsWith(key)) {
+                    return Long.parseLong(line.substring(key.length()).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return -1;
+    }
+
+    private long toMegabytes(long bytes) {
+        return Math.max(bytes, 0) / (1024 * 1024);
+    }
+
+    private static class ConcurrencyLimit extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ConcurrencyLimit(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
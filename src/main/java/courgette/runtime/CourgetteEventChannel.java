@@ -0,0 +1,164 @@
+package courgette.runtime;
+
+import courgette.api.CourgetteEventBackpressure;
+import courgette.runtime.event.CourgetteEvent;
+import courgette.runtime.event.CourgetteEventHolder;
+import courgette.runtime.event.EventRingBuffer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
+
+/**
+ * Delivers events to a publisher on its own thread, so a slow publisher never holds up the test threads.
+ * When the queue is full, the backpressure decides whether the test thread waits for the publisher or the oldest pending event is dropped.
+ * The test run started, finished and summary events are never dropped, as the publishers need them to start and finish the test run.
+ */
+class CourgetteEventChannel {
+    private static final int CAPACITY = 1024;
+    private static final long CONSUMER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final CourgettePublisher publisher;
+    private final CourgetteEventBackpressure backpressure;
+    private final EventRingBuffer<PendingEvent> events = new EventRingBuffer<>(CAPACITY);
+    private final Deque<PendingEvent> retainedEvents = new ArrayDeque<>();
+    private final Thread consumer;
+    private volatile boolean closed;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    CourgetteEventChannel(CourgettePublisher publisher, CourgetteEventBackpressure backpressure) {
+        this.publisher = publisher;
+        this.backpressure = backpressure;
+        this.consumer = new Thread(this::consume, "courgette-event-" + publisher.getClass().getSimpleName());
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    void publish(CourgetteEventHolder eventHolder) {
+        final PendingEvent pendingEvent = new PendingEvent(eventHolder);
+
+        switch (backpressure) {
+            case DROP_OLDEST:
+                while (!events.offer(pendingEvent)) {
+                    dropOldest();
+                }
+                break;
+            default:
+                offer(pendingEvent);
+        }
+
+        maxQueueDepth.accumulateAndGet(events.size(), Math::max);
+        LockSupport.unpark(consumer);
+    }
+
+    /**
+     * Waits until all pending events have been delivered and stops the publisher thread.
+     */
+    void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(consumer);
+        consumer.join();
+    }
+
+    String getMetrics() {
+        return String.format("%d events published, %d dropped, max queue depth: %d, max lag: %d ms",
+                published.get(), dropped.get(), maxQueueDepth.get(), maxLagMillis.get());
+    }
+
+    boolean hasLostEvents() {
+        return dropped.get() > 0;
+    }
+
+    String getPublisherName() {
+        return publisher.getClass().getSimpleName();
+    }
+
+    private void offer(PendingEvent pendingEvent) {
+        while (!events.offer(pendingEvent)) {
+            LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Drops the oldest pending event. A test run event is kept aside and delivered before the remaining events, so it is neither lost nor
+     * delivered out of order. The consumer takes its events under the same lock in this mode.
+     */
+    private void dropOldest() {
+        synchronized (retainedEvents) {
+            final PendingEvent oldestEvent = events.poll();
+
+            if (oldestEvent == null) {
+                return;
+            }
+            if (isTestRunEvent(oldestEvent.eventHolder.getCourgetteEvent())) {
+                retainedEvents.addLast(oldestEvent);
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isTestRunEvent(CourgetteEvent event) {
+        return event == CourgetteEvent.TEST_RUN_STARTED || event == CourgetteEvent.TEST_RUN_FINISHED || event == CourgetteEvent.TEST_RUN_SUMMARY;
+    }
+
+    private PendingEvent nextEvent() {
+        if (backpressure != CourgetteEventBackpressure.DROP_OLDEST) {
+            return events.poll();
+        }
+        synchronized (retainedEvents) {
+            final PendingEvent retainedEvent = retainedEvents.pollFirst();
+            return retainedEvent != null ? retainedEvent : events.poll();
+        }
+    }
+
+    private boolean hasPendingEvents() {
+        synchronized (retainedEvents) {
+            return !events.isEmpty() || !retainedEvents.isEmpty();
+        }
+    }
+
+    private void consume() {
+        while (true) {
+            final PendingEvent pendingEvent = nextEvent();
+
+            if (pendingEvent != null) {
+                deliver(pendingEvent);
+            } else if (closed && !hasPendingEvents()) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+            }
+        }
+    }
+
+    private void deliver(PendingEvent pendingEvent) {
+        maxLagMillis.accumulateAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pendingEvent.publishedAt), Math::max);
+
+        try {
+            publisher.publish(pendingEvent.eventHolder);
+        } catch (Throwable throwable) {
+            printExceptionStackTrace(throwable);
+        }
+        published.incrementAndGet();
+    }
+
+    private static class PendingEvent {
+        private final long publishedAt = System.nanoTime();
+        private final CourgetteEventHolder eventHolder;
+
+        PendingEvent(CourgetteEventHolder eventHolder) {
+            this.eventHolder = eventHolder;
+        }
+    }
+}
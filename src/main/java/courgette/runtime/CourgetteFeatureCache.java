@@ -0,0 +1,196 @@
+package courgette.runtime;
+
+import io.cucumber.core.feature.FeatureIdentifier;
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.resource.Resource;
+import io.cucumber.core.resource.ResourceScanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static courgette.runtime.CourgetteException.printError;
+
+/**
+ * Keeps the parsed features for the lifetime of the JVM, so runner classes which share the same feature files only parse them once.
+ * A feature file is parsed again when its modified time and content have changed. Feature files are read while scanning the feature paths
+ * and then parsed in parallel.
+ */
+class CourgetteFeatureCache {
+    private final Map<URI, CachedFeature> cachedFeatures = new ConcurrentHashMap<>();
+
+    private static CourgetteFeatureCache instance;
+
+    static synchronized CourgetteFeatureCache current() {
+        if (instance == null) {
+            instance = new CourgetteFeatureCache();
+        }
+        return instance;
+    }
+
+    private CourgetteFeatureCache() {
+    }
+
+    List<Feature> getFeatures(Supplier<ClassLoader> classLoader, RuntimeOptions runtimeOptions, FeatureParser parser) {
+        final ResourceScanner<FeatureSource> featureScanner = new ResourceScanner<>(classLoader, FeatureIdentifier::isFeature, resource -> Optional.of(readResource(resource)));
+
+        final Map<URI, List<FeatureSource>> featureSources = new LinkedHashMap<>();
+        runtimeOptions.getFeaturePaths().forEach(featurePath -> featureSources.put(featurePath, featureScanner.scanForResourcesUri(featurePath)));
+
+        final Map<FeatureSource, Optional<Feature>> parsedFeatures = featureSources.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList())
+                .parallelStream()
+                .collect(Collectors.toConcurrentMap(Function.identity(), source -> parseFeature(source, parser)));
+
+        final Map<String, Map<String, Feature>> featuresBySource = new HashMap<>();
+        final List<Feature> features = new ArrayList<>();
+
+        for (Map.Entry<URI, List<FeatureSource>> featurePath : featureSources.entrySet()) {
+            final List<Feature> foundFeatures = featurePath.getValue().stream()
+                    .map(parsedFeatures::get)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(Collectors.toList());
+
+            if (foundFeatures.isEmpty() && FeatureIdentifier.isFeature(featurePath.getKey())) {
+                throw new IllegalArgumentException("Feature not found: " + featurePath.getKey());
+            }
+
+            foundFeatures.forEach(feature -> {
+                final Map<String, Feature> featuresByFileName = featuresBySource.computeIfAbsent(feature.getSource(), source -> new HashMap<>());
+                final String featureFile = feature.getUri().getSchemeSpecificPart();
+                final String fileName = featureFile.substring(featureFile.lastIndexOf('/') + 1);
+
+                if (featuresByFileName.containsKey(fileName)) {
+                    printError(String.format("Courgette: Duplicate feature ignored: %s was identical to %s", feature.getUri(), featuresByFileName.get(fileName).getUri()));
+                } else {
+                    featuresByFileName.put(fileName, feature);
+                    features.add(feature);
+                }
+            });
+        }
+
+        features.sort(Comparator.comparing(Feature::getUri));
+        return features;
+    }
+
+    private FeatureSource readResource(Resource resource) {
+        final URI uri = resource.getUri();
+        final long lastModified = getLastModified(uri);
+        final CachedFeature cachedFeature = cachedFeatures.get(uri);
+
+        if (cachedFeature != null && lastModified > 0 && cachedFeature.lastModified == lastModified) {
+            return new FeatureSource(uri, lastModified, null);
+        }
+        return new FeatureSource(uri, lastModified, readContent(resource));
+    }
+
+    private Optional<Feature> parseFeature(FeatureSource source, FeatureParser parser) {
+        final URI uri = source.uri;
+        final long lastModified = source.lastModified;
+        final byte[] content = source.content;
+        final CachedFeature cachedFeature = cachedFeatures.get(uri);
+
+        if (content == null) {
+            return cachedFeature.feature;
+        }
+
+        final byte[] hash = hash(content);
+
+        if (cachedFeature != null && Arrays.equals(cachedFeature.hash, hash)) {
+            cachedFeatures.put(uri, new CachedFeature(lastModified, hash, cachedFeature.feature));
+            return cachedFeature.feature;
+        }
+
+        final Optional<Feature> feature = parser.parseResource(new Resource() {
+            @Override
+            public URI getUri() {
+                return uri;
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(content);
+            }
+        });
+
+        cachedFeatures.put(uri, new CachedFeature(lastModified, hash, feature));
+        return feature;
+    }
+
+    private long getLastModified(URI uri) {
+        try {
+            return "file".equals(uri.getScheme()) ? Files.getLastModifiedTime(Paths.get(uri)).toMillis() : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private byte[] readContent(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            final byte[] buffer = new byte[8192];
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read feature " + resource.getUri(), e);
+        }
+    }
+
+    private byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CourgetteException(e);
+        }
+    }
+
+    private static class FeatureSource {
+        private final URI uri;
+        private final long lastModified;
+        private final byte[] content;
+
+        FeatureSource(URI uri, long lastModified, byte[] content) {
+            this.uri = uri;
+            this.lastModified = lastModified;
+            this.content = content;
+        }
+    }
+
+    private static class CachedFeature {
+        private final long lastModified;
+        private final byte[] hash;
+        private final Optional<Feature> feature;
+
+        CachedFeature(long lastModified, byte[] hash, Optional<Feature> feature) {
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.feature = feature;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package courgette.runtime;
 
+import courgette.api.CourgetteTestOutput;
 import courgette.runtime.utils.FileUtils;
+import courgette.runtime.worker.CourgetteWorkerMain;
+import courgette.runtime.worker.CourgetteWorkerPool;
+import courgette.runtime.worker.CourgetteWorkerRequest;
+import courgette.runtime.worker.CourgetteWorkerResponse;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -11,39 +17,51 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.function.Predicate;
 
 import static courgette.runtime.CourgetteException.printExceptionStackTrace;
 import static courgette.runtime.utils.SystemPropertyUtils.splitAndAddPropertyToList;
 
 public class CourgetteFeatureRunner {
+    private static final String BATCH_FORMATTER_PLUGIN = CourgetteBatchFormatter.class.getName() + ":";
+    private static final List<String> FILE_PLUGINS = Arrays.asList("json", "message", "junit", "rerun", "html", "pretty", "progress", "summary", "testng", "usage");
+
     private final CourgetteRunnerInfo runnerInfo;
     private final Map<String, List<String>> runnerArgs;
     private final CourgetteProperties courgetteProperties;
     private final CourgettePluginService courgettePluginService;
+    private final CourgetteWorkerPool workerPool;
 
     CourgetteFeatureRunner(CourgetteRunnerInfo runnerInfo,
                            Map<String, List<String>> runnerArgs,
                            CourgetteProperties courgetteProperties,
-                           CourgettePluginService courgettePluginService) {
+                           CourgettePluginService courgettePluginService,
+                           CourgetteWorkerPool workerPool) {
         this.runnerInfo = runnerInfo;
         this.runnerArgs = runnerArgs;
         this.courgetteProperties = courgetteProperties;
         this.courgettePluginService = courgettePluginService;
+        this.workerPool = workerPool;
     }
 
     public CourgetteRun run() {
         Timestamp startTimestamp = Timestamp.from(Instant.now());
-        Process process = null;
         Builder thisBuilder = new Builder();
+        int exitCode = -1;
         String error = null;
         CourgetteMobileDevice mobileDevice = null;
 
         try {
-            final ProcessBuilder builder = thisBuilder.buildProcess();
-            process = builder.start();
-            process.waitFor();
-        } catch (IOException | InterruptedException e) {
+            if (courgetteProperties.useWorkerPool()) {
+                final CourgetteWorkerResponse response = workerPool.execute(thisBuilder::buildWorkerProcess, thisBuilder.buildWorkerRequest());
+                exitCode = response.getExitCode();
+                error = response.getError();
+            } else {
+                final Process process = thisBuilder.buildProcess().start();
+                exitCode = process.waitFor();
+            }
+        } catch (IOException | InterruptedException | CourgetteException e) {
             error = e.getMessage();
             printExceptionStackTrace(e);
         } finally {
@@ -54,10 +72,9 @@ public class CourgetteFeatureRunner {
         }
 
         String featureUri = runnerArgs.get(null).get(0);
-        int exitCode = process != null ? process.exitValue() : -1;
         boolean isRerun = runnerArgs.get("retry") != null;
 
-        return new CourgetteRun(featureUri,
+        final CourgetteRun run = new CourgetteRun(featureUri,
                 Thread.currentThread().getId(),
                 startTimestamp,
                 Timestamp.from(Instant.now()),
@@ -66,6 +83,8 @@ public class CourgetteFeatureRunner {
                 error,
                 mobileDevice
         );
+        thisBuilder.getDeviceWaitTime().ifPresent(run::setDeviceWaitTime);
+        return run;
     }
 
     class Builder {
@@ -75,8 +94,9 @@ public class CourgetteFeatureRunner {
         private static final String CUCUMBER_PUBLISH_TOKEN = "CUCUMBER_PUBLISH_TOKEN";
 
         private CourgetteMobileDevice device;
+        private Long deviceWaitTime;
 
-        ProcessBuilder buildProcess() {
+        ProcessBuilder buildProcess() throws InterruptedException {
             final ProcessBuilder builder = new ProcessBuilder();
 
             environmentVariablesToRemove().forEach(builder.environment()::remove);
@@ -92,41 +112,100 @@ public class CourgetteFeatureRunner {
             }
 
             builder.redirectErrorStream(true);
-            final List<String> commands = new ArrayList<>();
-            commands.add("java");
-            splitAndAddPropertyToList(CourgetteSystemProperty.VM_OPTIONS, commands);
-            commands.addAll(getSystemProperties());
-            checkCustomClassPath(commands);
+            final List<String> systemProperties = getSystemProperties();
+            addCourgetteMobileDeviceAllocatorProperties(systemProperties);
+            final List<String> commands = createJavaCommand(systemProperties);
             commands.add("io.cucumber.core.cli.Main");
             runnerArgs.forEach((key, value) -> commands.addAll(value));
             builder.command(commands);
             return builder;
         }
 
+        ProcessBuilder buildWorkerProcess(int workerPort) {
+            final ProcessBuilder builder = new ProcessBuilder();
+
+            environmentVariablesToRemove().forEach(builder.environment()::remove);
+
+            if (courgetteProperties.getCourgetteOptions().testOutput() == CourgetteTestOutput.CONSOLE) {
+                builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+            } else {
+                builder.redirectOutput(FileUtils.nullDevice());
+            }
+
+            builder.redirectErrorStream(true);
+            final List<String> systemProperties = getSystemProperties();
+            systemProperties.add(String.format("-D%s=%s", CourgetteWorkerMain.WORKER_PORT, workerPort));
+            final List<String> commands = createJavaCommand(systemProperties);
+            commands.add(CourgetteWorkerMain.class.getName());
+            builder.command(commands);
+            return builder;
+        }
+
+        CourgetteWorkerRequest buildWorkerRequest() throws IOException {
+            final List<String> args = new ArrayList<>();
+            runnerArgs.forEach((key, value) -> args.addAll(value));
+
+            final CourgetteWorkerRequest request;
+
+            switch (courgetteProperties.getCourgetteOptions().testOutput()) {
+                case FILE:
+                    String filePrefix = (runnerArgs.get("retry") != null ? "retry_" : "");
+                    request = new CourgetteWorkerRequest(args, getTestOutputFile(filePrefix).getPath(), false);
+                    break;
+                case DISCARD:
+                    request = new CourgetteWorkerRequest(args, null, true);
+                    break;
+                default:
+                    request = new CourgetteWorkerRequest(args, null, false);
+            }
+
+            if (courgetteProperties.isDistributed()) {
+                addRemoteWorkerFiles(request);
+            }
+            return request;
+        }
+
         public Optional<CourgetteMobileDevice> getDevice() {
             return Optional.ofNullable(device);
         }
 
+        public Optional<Long> getDeviceWaitTime() {
+            return Optional.ofNullable(deviceWaitTime);
+        }
+
         private List<String> getSystemProperties() {
             final List<String> systemPropertyList = new ArrayList<>();
             System.getProperties().keySet().forEach(property -> systemPropertyList.add(String.format("-D%s=%s", property, System.getProperty(property.toString()))));
             systemPropertyList.removeIf(cucumberSystemPropertiesRequiresRemoval());
             addCucumberSystemProperties(systemPropertyList);
             addCourgetteSystemProperties(systemPropertyList);
-            addCourgetteMobileDeviceAllocatorProperties(systemPropertyList);
             return systemPropertyList;
         }
 
+        private List<String> createJavaCommand(final List<String> systemProperties) {
+            final List<String> commands = new ArrayList<>();
+            commands.add("java");
+            splitAndAddPropertyToList(CourgetteSystemProperty.VM_OPTIONS, commands);
+            commands.addAll(systemProperties);
+            checkCustomClassPath(commands);
+            return commands;
+        }
+
         private void addCucumberSystemProperties(final List<String> systemPropertyList) {
             systemPropertyList.add(CUCUMBER_PROPERTY_PUBLISH_DISABLED);
             systemPropertyList.add(CUCUMBER_PROPERTY_PUBLISH_QUITE);
         }
 
-        private void addCourgetteMobileDeviceAllocatorProperties(final List<String> systemPropertyList) {
+        private void addCourgetteMobileDeviceAllocatorProperties(final List<String> systemPropertyList) throws InterruptedException {
             if (courgetteProperties.isMobileDeviceAllocationPluginEnabled()) {
-                device = courgettePluginService.getCourgetteMobileDeviceAllocatorService().allocateDevice(runnerInfo.getDeviceType());
+                final CourgetteMobileDeviceAllocatorService allocatorService = courgettePluginService.getCourgetteMobileDeviceAllocatorService();
+                final long waitStart = System.currentTimeMillis();
+                device = allocatorService.allocateDevice(runnerInfo.getDeviceType());
+                deviceWaitTime = System.currentTimeMillis() - waitStart;
                 systemPropertyList.add(String.format("-D%s=%s", CourgetteSystemProperty.DEVICE_NAME_SYSTEM_PROPERTY, device.getDeviceName()));
                 systemPropertyList.add(String.format("-D%s=%s", CourgetteSystemProperty.PARALLEL_PORT_SYSTEM_PROPERTY, device.getParallelPort()));
+                systemPropertyList.add(String.format("-D%s=%s", CourgetteSystemProperty.WARM_SESSION_SYSTEM_PROPERTY, allocatorService.isWarmSession(device)));
+                systemPropertyList.add(String.format("-D%s=%s", CourgetteSystemProperty.SESSION_FILE_SYSTEM_PROPERTY, allocatorService.getSessionFile(device)));
                 if (runnerInfo.getDeviceType().equals(DeviceType.REAL_DEVICE)) {
                     systemPropertyList.add(String.format("-D%s=%s", CourgetteSystemProperty.UDID_SYSTEM_PROPERTY, device.getUdid()));
                 }
@@ -149,6 +228,41 @@ public class CourgetteFeatureRunner {
             return environment;
         }
 
+        /**
+         * A remote worker writes the batch file before the run and sends back the report files and test output after the run.
+         */
+        private void addRemoteWorkerFiles(CourgetteWorkerRequest request) throws IOException {
+            final List<String> plugins = new ArrayList<>();
+
+            for (String plugin : runnerArgs.getOrDefault("--plugin", new ArrayList<>())) {
+                if (plugin.startsWith(BATCH_FORMATTER_PLUGIN)) {
+                    final File batchFile = new File(plugin.substring(BATCH_FORMATTER_PLUGIN.length()));
+                    final Properties batch = CourgetteScenarioBatch.readBatchFile(batchFile);
+
+                    request.getInputFiles().put(batchFile.getPath(), Files.readAllBytes(batchFile.toPath()));
+                    request.getOutputFiles().add(batch.getProperty(CourgetteScenarioBatch.RESULT_FILE));
+
+                    batch.stringPropertyNames().stream()
+                            .filter(key -> key.contains(".plugin."))
+                            .map(batch::getProperty)
+                            .forEach(plugins::add);
+                } else {
+                    plugins.add(plugin);
+                }
+            }
+
+            plugins.forEach(plugin -> {
+                final int separator = plugin.indexOf(':');
+                if (separator > 0 && FILE_PLUGINS.contains(plugin.substring(0, separator))) {
+                    request.getOutputFiles().add(plugin.substring(separator + 1));
+                }
+            });
+
+            if (request.getOutputFile() != null) {
+                request.getOutputFiles().add(request.getOutputFile());
+            }
+        }
+
         private void checkCustomClassPath(List<String> commands) {
             if (courgetteProperties.useCustomClasspath()) {
                 commands.removeIf(c -> c.startsWith("-Djava.class.path"));
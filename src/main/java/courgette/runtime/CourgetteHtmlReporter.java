@@ -19,8 +19,11 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -92,9 +95,19 @@ public class CourgetteHtmlReporter {
 
         final HtmlReportBuilder htmlReportBuilder = HtmlReportBuilder.create(reportFeatures, courgetteRunResults, courgetteProperties);
 
-        final List<String> results = htmlReportBuilder.getHtmlTableFeatureRows();
+        final boolean paginated = courgetteProperties.isHtmlReportPaginated();
 
-        final List<String> modals = htmlReportBuilder.getHtmlModals();
+        final List<String> results;
+        final List<String> modals;
+
+        if (paginated) {
+            htmlReportBuilder.writeHtmlReportData(new File(reportDir + "/data"));
+            results = Collections.emptyList();
+            modals = htmlReportBuilder.getPaginatedHtmlModals();
+        } else {
+            results = htmlReportBuilder.getHtmlTableFeatureRows();
+            modals = htmlReportBuilder.getHtmlModals();
+        }
 
         final HashMap<String, Object> reportData = new HashMap<>();
         reportData.put("reportTitle", reportTitle);
@@ -115,6 +128,7 @@ public class CourgetteHtmlReporter {
         reportData.put("features", cucumberFeatures);
         reportData.put("results", results);
         reportData.put("modals", modals);
+        reportData.put("paginated", paginated);
         reportData.put("styles", cssContent);
         reportData.put("scripts", jsScripts);
 
@@ -128,12 +142,18 @@ public class CourgetteHtmlReporter {
         final Mustache report = new DefaultMustacheFactory().compile(reader, "");
         report.execute(writer, reportData);
 
-        createImageScript(writer, reportFeatures);
+        final List<Embedding> imageEmbeddings = getImageEmbeddings(reportFeatures);
+
+        if (courgetteProperties.isHtmlReportImageEmbedded()) {
+            createImageScript(writer, imageEmbeddings);
+        } else {
+            createImageFiles(imageEmbeddings);
+        }
 
         writer.close();
     }
 
-    private void createImageScript(Writer writer, List<Feature> reportFeatures) throws IOException {
+    private List<Embedding> getImageEmbeddings(List<Feature> reportFeatures) {
 
         final List<Embedding> embeddings = new ArrayList<>();
 
@@ -169,21 +189,39 @@ public class CourgetteHtmlReporter {
                 .flatMap(t -> t.getEmbeddings().stream())
                 .forEach(embeddings::add);
 
-        final List<Embedding> imageEmbeddings = embeddings.stream().filter(e -> e.getMimeType().startsWith("image")).collect(Collectors.toList());
+        return embeddings.stream().filter(e -> e.getMimeType().startsWith("image")).collect(Collectors.toList());
+    }
+
+    private void createImageScript(Writer writer, List<Embedding> imageEmbeddings) throws IOException {
+        final Map<String, List<Embedding>> images = imageEmbeddings.stream()
+                .collect(Collectors.groupingBy(Embedding::getHash, LinkedHashMap::new, Collectors.toList()));
 
         writer.write("\n<script>\n");
 
-        for (Embedding embedding : imageEmbeddings) {
-            writer.write("document.getElementById('");
-            writer.write(embedding.getCourgetteEmbeddingId());
-            writer.write("').src='data:image;base64,");
-            writer.write(embedding.getData());
-            writer.write("'\n\n");
+        for (List<Embedding> embeddings : images.values()) {
+            writer.write("['");
+            writer.write(embeddings.stream().map(Embedding::getCourgetteEmbeddingId).collect(Collectors.joining("','")));
+            writer.write("'].forEach(function(id){document.getElementById(id).src='data:image;base64,");
+            writer.write(embeddings.get(0).getData());
+            writer.write("'})\n\n");
         }
 
         writer.write("</script>");
     }
 
+    private void createImageFiles(List<Embedding> imageEmbeddings) throws IOException {
+        final File imageDir = new File(reportDir + "/images");
+
+        final Map<String, Embedding> images = new LinkedHashMap<>();
+        imageEmbeddings.forEach(embedding -> images.putIfAbsent(embedding.getFileName(), embedding));
+
+        for (Map.Entry<String, Embedding> image : images.entrySet()) {
+            try (InputStream imageData = image.getValue().openStream()) {
+                FileUtils.copyInputStreamToFile(imageData, new File(imageDir, image.getKey()));
+            }
+        }
+    }
+
     private void createReportDirectories() {
         final File targetDir = new File(this.targetDir);
 
@@ -200,5 +238,15 @@ public class CourgetteHtmlReporter {
                 throw new CourgetteException("Unable to create the '../courgette-report' directory");
             }
         }
+
+        FileUtils.deleteDirectorySilently(this.reportDir + "/data");
+
+        final File imageDir = new File(this.reportDir + "/images");
+
+        FileUtils.deleteDirectorySilently(imageDir.getPath());
+
+        if (!courgetteProperties.isHtmlReportImageEmbedded() && !imageDir.mkdir()) {
+            throw new CourgetteException("Unable to create the '../courgette-report/images' directory");
+        }
     }
 }
\ No newline at end of file
@@ -6,7 +6,6 @@ import io.cucumber.core.filter.Filters;
 import io.cucumber.core.gherkin.Feature;
 import io.cucumber.core.options.RuntimeOptions;
 import io.cucumber.core.resource.ClassLoaders;
-import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
 import io.cucumber.core.runtime.TimeServiceEventBus;
 
 import java.time.Clock;
@@ -14,26 +13,32 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class CourgetteLoader {
     private final CourgetteProperties courgetteProperties;
     private final List<Feature> features;
-    private final Filters filters;
+    private final Map<Feature, CourgettePickleMatcher> pickleMatchers;
+    private final Set<String> selectedScenarios;
 
     public CourgetteLoader(CourgetteProperties courgetteProperties) {
         this.courgetteProperties = courgetteProperties;
 
-        RuntimeOptions runtimeOptions = createRuntimeOptions();
-        this.filters = new Filters(runtimeOptions);
+        CourgetteRuntimeOptions courgetteRuntimeOptions = new CourgetteRuntimeOptions(courgetteProperties);
+        RuntimeOptions runtimeOptions = courgetteRuntimeOptions.getRuntimeOptions();
+        Filters filters = new Filters(runtimeOptions);
 
         EventBus eventBus = new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID);
         FeatureParser parser = new FeatureParser(eventBus::generateId);
         Supplier<ClassLoader> classLoader = ClassLoaders::getDefaultClassLoader;
-        FeaturePathFeatureSupplier featureSupplier = new FeaturePathFeatureSupplier(classLoader, runtimeOptions, parser);
 
-        this.features = featureSupplier.get();
+        this.features = CourgetteFeatureCache.current().getFeatures(classLoader, runtimeOptions, parser);
+        this.pickleMatchers = features.parallelStream().collect(Collectors.toConcurrentMap(Function.identity(), feature -> new CourgettePickleMatcher(feature, filters)));
+        this.selectedScenarios = selectScenarios(courgetteRuntimeOptions);
     }
 
     public List<Feature> getFeatures() {
@@ -44,17 +49,29 @@ public class CourgetteLoader {
         return filterCucumberScenarios(features);
     }
 
-    private RuntimeOptions createRuntimeOptions() {
-        return new CourgetteRuntimeOptions(courgetteProperties).getRuntimeOptions();
+    private Set<String> selectScenarios(CourgetteRuntimeOptions courgetteRuntimeOptions) {
+        final String changedFiles = courgetteProperties.getCourgetteOptions().changedFiles();
+
+        if (changedFiles.trim().isEmpty()) {
+            return null;
+        }
+
+        return new CourgetteTestImpactIndex(courgetteRuntimeOptions.getCourgetteTestImpactIndex())
+                .selectScenarios(features, courgetteRuntimeOptions.getDryRunRuntimeOptions(), changedFiles)
+                .orElse(null);
+    }
+
+    private boolean isSelected(Feature feature, int line) {
+        return selectedScenarios == null || selectedScenarios.contains(CourgetteTestImpactIndex.scenarioId(feature.getUri(), line));
     }
 
     private List<Feature> filterFeatures() {
         final List<Feature> matchedFeatures = new ArrayList<>();
 
         features.forEach(feature -> {
-            CourgettePickleMatcher pickleMatcher = new CourgettePickleMatcher(feature, filters);
+            CourgettePickleMatcher pickleMatcher = pickleMatchers.get(feature);
 
-            if (pickleMatcher.matches()) {
+            if (pickleMatcher.matches() && feature.getPickles().stream().anyMatch(pickle -> isSelected(feature, pickle.getLocation().getLine()))) {
                 matchedFeatures.add(feature);
             }
         });
@@ -67,10 +84,10 @@ public class CourgetteLoader {
         if (features != null) {
             features.forEach(feature ->
                     feature.getPickles().forEach(pickle -> {
-                        CourgettePickleMatcher pickleMatcher = new CourgettePickleMatcher(feature, filters);
+                        CourgettePickleMatcher pickleMatcher = pickleMatchers.get(feature);
 
                         CucumberPickleLocation pickleLocation = pickleMatcher.matchLocation(pickle.getLocation().getLine());
-                        if (pickleLocation != null) {
+                        if (pickleLocation != null && isSelected(feature, pickle.getLocation().getLine())) {
                             scenarios.put(pickleLocation, feature);
                         }
                     }));
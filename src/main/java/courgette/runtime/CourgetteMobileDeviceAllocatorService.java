@@ -1,42 +1,116 @@
 package courgette.runtime;
 
+import courgette.runtime.utils.FileUtils;
+
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static courgette.runtime.CourgetteException.printError;
 
 public class CourgetteMobileDeviceAllocatorService {
+    private static final long ALLOCATION_TIMEOUT_MINUTES = 60;
 
-    private final CopyOnWriteArrayList<CourgetteMobileDevice> availableDevices = new CopyOnWriteArrayList<>();
-    private final CopyOnWriteArrayList<CourgetteMobileDevice> unavailableDevices = new CopyOnWriteArrayList<>();
+    private final Map<DeviceType, BlockingQueue<CourgetteMobileDevice>> availableDevices = new EnumMap<>(DeviceType.class);
+    private final Map<DeviceType, Integer> deviceCounts = new EnumMap<>(DeviceType.class);
+    private final Set<CourgetteMobileDevice> leasedDevices = ConcurrentHashMap.newKeySet();
+    private final Set<CourgetteMobileDevice> warmDevices = ConcurrentHashMap.newKeySet();
+    private final Map<Long, CourgetteMobileDevice> threadDevices = new ConcurrentHashMap<>();
+    private final Map<CourgetteMobileDevice, Long> deviceThreads = new ConcurrentHashMap<>();
+    private final Map<CourgetteMobileDevice, String> sessionFiles = new ConcurrentHashMap<>();
 
     public CourgetteMobileDeviceAllocatorService(final String[] devices) {
-        availableDevices.addAll(createCourgetteMobileDevices(devices));
+        final List<CourgetteMobileDevice> mobileDevices = createCourgetteMobileDevices(devices);
+        Collections.shuffle(mobileDevices);
+
+        for (DeviceType deviceType : DeviceType.values()) {
+            final List<CourgetteMobileDevice> devicesOfType = mobileDevices.stream()
+                    .filter(device -> device.getDeviceType().equals(deviceType))
+                    .collect(Collectors.toList());
+
+            final BlockingQueue<CourgetteMobileDevice> queue = new ArrayBlockingQueue<>(Math.max(1, devicesOfType.size()), true);
+            queue.addAll(devicesOfType);
+            availableDevices.put(deviceType, queue);
+            deviceCounts.put(deviceType, devicesOfType.size());
+        }
+
+        final String sessionId = UUID.randomUUID().toString();
+        mobileDevices.forEach(device -> sessionFiles.put(device, String.format("%scourgette-mobile-session-%s-%d.txt",
+                FileUtils.tempDirectory(), sessionId, device.getParallelPort())));
     }
 
-    public synchronized CourgetteMobileDevice allocateDevice(final DeviceType deviceType) {
-        List<CourgetteMobileDevice> devices = availableDevices
-                .stream()
-                .filter(device -> device.getDeviceType().equals(deviceType))
-                .filter(device -> !unavailableDevices.contains(device))
-                .collect(Collectors.toList());
+    /**
+     * Takes the device last used by the current thread when it is still free, so the device session can be reused.
+     * Otherwise takes the device that has been free the longest, waiting for a device to be deallocated when all devices are in use.
+     * Waiting threads are given a device in the order they asked for one.
+     */
+    public CourgetteMobileDevice allocateDevice(final DeviceType deviceType) throws InterruptedException {
+        if (deviceCounts.get(deviceType) == 0) {
+            throw new CourgetteException(String.format("Courgette Mobile Device Allocator: There are no %s devices to allocate", deviceType));
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final BlockingQueue<CourgetteMobileDevice> queue = availableDevices.get(deviceType);
+        final CourgetteMobileDevice lastDevice = threadDevices.get(threadId);
+
+        final CourgetteMobileDevice device = lastDevice != null && queue.remove(lastDevice)
+                ? lastDevice
+                : queue.poll(ALLOCATION_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+
+        if (device == null) {
+            throw new CourgetteException(String.format("Courgette Mobile Device Allocator: No %s device was available after %d minutes", deviceType, ALLOCATION_TIMEOUT_MINUTES));
+        }
 
-        Collections.shuffle(devices);
-        final CourgetteMobileDevice device = devices.get(0);
-        unavailableDevices.add(device);
+        final Long lastThreadId = deviceThreads.put(device, threadId);
+        if (lastThreadId != null && lastThreadId == threadId) {
+            warmDevices.add(device);
+        } else {
+            warmDevices.remove(device);
+        }
+        threadDevices.put(threadId, device);
+        leasedDevices.add(device);
         return device;
     }
 
-    public synchronized void deallocateDevice(final CourgetteMobileDevice device) {
-        unavailableDevices.remove(device);
+    /**
+     * @return true if the device was last used by the same thread, so a session started by the previous test on this device can be reused
+     */
+    public boolean isWarmSession(final CourgetteMobileDevice device) {
+        return warmDevices.contains(device);
+    }
+
+    /**
+     * @return a file which is kept for the duration of the test run where tests can save the session of the device
+     */
+    public String getSessionFile(final CourgetteMobileDevice device) {
+        return sessionFiles.get(device);
+    }
+
+    public void deleteSessionFiles() {
+        sessionFiles.values().forEach(FileUtils::deleteFileSilently);
+    }
+
+    /**
+     * Returns the device to the pool of available devices. A device which is not leased is ignored,
+     * so a device can never be allocated twice.
+     */
+    public void deallocateDevice(final CourgetteMobileDevice device) {
+        if (leasedDevices.remove(device)) {
+            availableDevices.get(device.getDeviceType()).offer(device);
+        }
     }
 
     private List<CourgetteMobileDevice> createCourgetteMobileDevices(final String[] devices) {
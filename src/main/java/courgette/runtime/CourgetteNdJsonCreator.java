@@ -11,42 +11,41 @@ import io.cucumber.messages.types.TestRunFinished;
 import io.cucumber.messages.types.TestRunStarted;
 import io.cucumber.messages.types.Timestamp;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static courgette.runtime.utils.JacksonUtils.CUCUMBER_OBJECT_MAPPER;
-import static java.util.Comparator.comparingLong;
-
 public class CourgetteNdJsonCreator {
-    private final Map<String, List<List<Envelope>>> messages;
+    private final List<Iterable<Envelope>> messages;
+    private final Consumer<Throwable> errorHandler;
 
-    public CourgetteNdJsonCreator(Map<String, List<List<Envelope>>> messages) {
+    /**
+     * @param errorHandler receives the error of a report which cannot be read, the other reports are still merged
+     */
+    public CourgetteNdJsonCreator(List<Iterable<Envelope>> messages, Consumer<Throwable> errorHandler) {
         this.messages = messages;
+        this.errorHandler = errorHandler;
     }
 
-    public static List<Envelope> createMessages(String source) {
-        final List<String> messageList = Arrays.asList(source.split("\n"));
-
-        final List<Envelope> messages = new ArrayList<>(messageList.size());
-
-        messageList.forEach(message -> {
-            ByteArrayInputStream in = new ByteArrayInputStream(message.getBytes(StandardCharsets.UTF_8));
-            for (Envelope envelope : new NdjsonToMessageIterable(in, new NdJsonMessageDeserializer())) {
-                messages.add(envelope);
-            }
-        });
-        return messages;
+    /**
+     * Returns the messages of a report file. The file is streamed each time the messages are iterated,
+     * so a report is never held in memory as a whole.
+     */
+    public static Iterable<Envelope> readMessages(File reportFile) {
+        return () -> new NdJsonMessageIterator(reportFile);
     }
 
     public List<Envelope> createFeatureMessages() {
@@ -58,94 +57,156 @@ public class CourgetteNdJsonCreator {
     }
 
     private List<Envelope> getMessages() {
-        List<Envelope> featureMessages =
-                this.messages.values().stream()
-                        .flatMap(Collection::stream)
-                        .flatMap(Collection::stream)
-                        .collect(Collectors.toList());
+        List<Envelope> featureMessages = new ArrayList<>();
+
+        messages.forEach(report -> readReport(report).ifPresent(featureMessages::addAll));
 
         return mutateMessages(featureMessages);
     }
 
     private List<Envelope> getScenarioMessages() {
-        List<Envelope> scenarioMessages = new ArrayList<>();
+        final List<Scenario> scenarios = new ArrayList<>();
 
-        messages.forEach((k, v) -> {
-            List<Scenario> scenarios = new ArrayList<>();
+        final List<Envelope> scenarioMessages = new ArrayList<>();
 
-            List<Envelope> messages = new ArrayList<>();
+        Envelope gherkinDocument = null;
 
-            v.forEach(message -> addMessage(message, scenarios, messages));
+        for (Iterable<Envelope> report : messages) {
+            final Optional<List<Envelope>> readMessages = readReport(report);
 
-            Envelope oldGherkinDocument = extractFirstGherkinDocument(messages);
-            Envelope newGherkinDocument = createNewGherkinDocument(oldGherkinDocument, scenarios);
+            if (!readMessages.isPresent()) {
+                continue;
+            }
+
+            final List<Envelope> reportMessages = readMessages.get();
+            final Optional<Pickle> pickle = extractPickle(reportMessages);
 
-            messages.removeIf(gherkinEnvelope);
-            messages.add(3, newGherkinDocument);
+            if (!pickle.isPresent()) {
+                continue;
+            }
+
+            for (Envelope envelope : reportMessages) {
+                if (envelope.getGherkinDocument().isPresent()) {
+                    if (gherkinDocument == null) {
+                        gherkinDocument = envelope;
+                    }
+                    findScenario(envelope.getGherkinDocument().get(), pickle.get()).ifPresent(scenarios::add);
+                } else if (envelope.getPickle().isPresent()) {
+                    if (envelope.getPickle().get() == pickle.get()) {
+                        scenarioMessages.add(envelope);
+                    }
+                } else {
+                    scenarioMessages.add(envelope);
+                }
+            }
+        }
+
+        if (gherkinDocument == null) {
+            throw new CourgetteException("Unable to find the Gherkin document in the ndjson reports");
+        }
 
-            scenarioMessages.addAll(messages);
-        });
+        scenarioMessages.add(Math.min(3, scenarioMessages.size()), createNewGherkinDocument(gherkinDocument, scenarios));
 
         return mutateMessages(scenarioMessages);
     }
 
+    /**
+     * Reads all messages of a report so a malformed or truncated report is skipped as a whole.
+     */
+    private Optional<List<Envelope>> readReport(Iterable<Envelope> report) {
+        final List<Envelope> reportMessages = new ArrayList<>();
+        try {
+            report.forEach(reportMessages::add);
+            return Optional.of(reportMessages);
+        } catch (RuntimeException e) {
+            errorHandler.accept(e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Keeps the first meta message, replaces the test run started and finished messages of each report
+     * with a single pair for the combined report and preserves the order of all other messages.
+     */
     private List<Envelope> mutateMessages(List<Envelope> envelopes) {
-        if (envelopes != null && !envelopes.isEmpty()) {
-            String testRunStartedId = UUID.randomUUID().toString();
-            Envelope testRunStarted = createTestRunStarted(envelopes, testRunStartedId);
-            Envelope testRunFinished = createTestRunFinished(envelopes, testRunStartedId);
+        if (envelopes == null || envelopes.isEmpty()) {
+            return null;
+        }
 
-            envelopes.subList(1, envelopes.size()).removeIf(metaEnvelope);
-            envelopes.removeIf(testRunStartedOrFinishedEnvelope);
+        Timestamp testRunStartedTimestamp = null;
+        Timestamp testRunFinishedTimestamp = null;
 
-            envelopes.add(2, testRunStarted);
-            envelopes.add(testRunFinished);
-            return envelopes;
+        for (Envelope envelope : envelopes) {
+            if (envelope.getTestRunStarted().isPresent()) {
+                testRunStartedTimestamp = earliest(testRunStartedTimestamp, envelope.getTestRunStarted().get().getTimestamp());
+            } else if (envelope.getTestRunFinished().isPresent()) {
+                testRunFinishedTimestamp = earliest(testRunFinishedTimestamp, envelope.getTestRunFinished().get().getTimestamp());
+            }
+        }
+
+        if (testRunStartedTimestamp == null || testRunFinishedTimestamp == null) {
+            throw new CourgetteException("Unable to find the test run started and finished messages in the ndjson reports");
         }
-        return null;
-    }
 
-    private void addMessage(List<Envelope> envelopes, List<Scenario> scenarios, List<Envelope> messages) {
-        final List<Envelope> envelopeList = new ArrayList<>();
+        final String testRunStartedId = UUID.randomUUID().toString();
+        final Envelope testRunStarted = Envelope.of(new TestRunStarted(testRunStartedTimestamp, testRunStartedId));
+        final Envelope testRunFinished = Envelope.of(new TestRunFinished(null, true, testRunFinishedTimestamp, null, testRunStartedId));
 
-        final Optional<TestCase> testCase = extractTestCase(envelopes);
+        final List<Envelope> mutatedEnvelopes = new ArrayList<>(envelopes.size() + 2);
 
-        final Optional<Pickle> pickle = extractPickle(envelopes, testCase);
+        for (int i = 0; i < envelopes.size(); i++) {
+            final Envelope envelope = envelopes.get(i);
 
-        envelopes.forEach(envelope -> {
-            if (pickle.isPresent()) {
-                if (envelope.getGherkinDocument().isPresent() &&
-                        envelope.getGherkinDocument().get().getFeature().isPresent()) {
-                    final Optional<Scenario> scenario = envelope.getGherkinDocument().get().getFeature().get().getChildren()
-                            .stream()
-                            .map(FeatureChild::getScenario)
-                            .filter(Objects::nonNull)
-                            .filter(s -> s.isPresent() && s.get().getId().equals(pickle.get().getAstNodeIds().get(0)))
-                            .findFirst()
-                            .orElse(Optional.empty());
+            if ((i > 0 && metaEnvelope.test(envelope)) || testRunStartedOrFinishedEnvelope.test(envelope)) {
+                continue;
+            }
+            if (mutatedEnvelopes.size() == 2) {
+                mutatedEnvelopes.add(testRunStarted);
+            }
+            mutatedEnvelopes.add(envelope);
+        }
 
-                    scenario.ifPresent(scenarios::add);
+        if (mutatedEnvelopes.size() <= 2) {
+            mutatedEnvelopes.add(testRunStarted);
+        }
+        mutatedEnvelopes.add(testRunFinished);
 
-                    envelopeList.add(envelope);
+        return mutatedEnvelopes;
+    }
 
-                } else if (envelope.getPickle().isPresent()) {
-                    if (envelope.getPickle().get() == pickle.get()) {
-                        envelopeList.add(envelope);
-                    }
-                } else {
-                    envelopeList.add(envelope);
-                }
+    private Optional<Pickle> extractPickle(List<Envelope> envelopes) {
+        final Map<String, Pickle> pickles = new HashMap<>();
+
+        TestCase testCase = null;
+
+        for (Envelope envelope : envelopes) {
+            if (envelope.getPickle().isPresent()) {
+                pickles.putIfAbsent(envelope.getPickle().get().getId(), envelope.getPickle().get());
+            } else if (testCase == null && envelope.getTestCase().isPresent() && !envelope.getTestCase().get().getPickleId().equals("")) {
+                testCase = envelope.getTestCase().get();
             }
-        });
+        }
+
+        return testCase != null ? Optional.ofNullable(pickles.get(testCase.getPickleId())) : Optional.empty();
+    }
 
-        messages.addAll(envelopeList);
+    private Optional<Scenario> findScenario(GherkinDocument gherkinDocument, Pickle pickle) {
+        if (!gherkinDocument.getFeature().isPresent() || pickle.getAstNodeIds().isEmpty()) {
+            return Optional.empty();
+        }
+
+        final String scenarioId = pickle.getAstNodeIds().get(0);
+
+        for (FeatureChild child : gherkinDocument.getFeature().get().getChildren()) {
+            if (child.getScenario().isPresent() && child.getScenario().get().getId().equals(scenarioId)) {
+                return child.getScenario();
+            }
+        }
+        return Optional.empty();
     }
 
-    private Envelope extractFirstGherkinDocument(List<Envelope> envelopes) {
-        return envelopes.stream()
-                .filter(gherkinEnvelope)
-                .findFirst()
-                .get();
+    private Timestamp earliest(Timestamp current, Timestamp timestamp) {
+        return current == null || timestamp.getSeconds() < current.getSeconds() ? timestamp : current;
     }
 
     private Envelope createNewGherkinDocument(Envelope envelope, List<Scenario> scenarios) {
@@ -170,55 +231,63 @@ public class CourgetteNdJsonCreator {
         return Envelope.of(newGherkinDoc);
     }
 
-    private Optional<TestCase> extractTestCase(List<Envelope> envelopes) {
-        return envelopes.stream()
-                .map(Envelope::getTestCase)
-                .filter(Objects::nonNull)
-                .filter(testCase)
-                .findFirst()
-                .get();
-    }
+    private final Predicate<Envelope> metaEnvelope = (envelope) -> envelope.getMeta().isPresent();
 
-    private Optional<Pickle> extractPickle(List<Envelope> envelopes, Optional<TestCase> testCase) {
-        if (!envelopes.isEmpty() && testCase.isPresent()) {
-            return envelopes.stream()
-                    .map(Envelope::getPickle)
-                    .filter(Objects::nonNull)
-                    .filter(pickle -> pickle.isPresent() && pickle.get().getId().equals(testCase.get().getPickleId()))
-                    .findFirst()
-                    .orElse(Optional.empty());
-        }
-        return Optional.empty();
-    }
+    private final Predicate<Envelope> testRunStartedOrFinishedEnvelope = (envelope) -> envelope.getTestRunStarted().isPresent() || envelope.getTestRunFinished().isPresent();
 
-    private Envelope createTestRunStarted(List<Envelope> envelopes, String testId) {
-        Timestamp timestamp = envelopes.stream()
-                .filter(envelope -> envelope.getTestRunStarted().isPresent())
-                .map(envelope -> envelope.getTestRunStarted().get().getTimestamp())
-                .min(comparingLong(Timestamp::getSeconds))
-                .get();
+    private static class NdJsonMessageIterator implements Iterator<Envelope> {
+        private final File reportFile;
+        private final InputStream inputStream;
+        private final Iterator<Envelope> envelopes;
+        private Envelope next;
+        private boolean closed;
+
+        NdJsonMessageIterator(File reportFile) {
+            this.reportFile = reportFile;
+            try {
+                this.inputStream = new BufferedInputStream(new FileInputStream(reportFile));
+                this.envelopes = new NdjsonToMessageIterable(inputStream, new NdJsonMessageDeserializer()).iterator();
+            } catch (IOException e) {
+                throw new CourgetteException(e);
+            }
+        }
 
-        return Envelope.of(new TestRunStarted(timestamp, testId));
-    }
+        @Override
+        public boolean hasNext() {
+            if (next == null && !closed) {
+                try {
+                    if (envelopes.hasNext()) {
+                        next = envelopes.next();
+                    } else {
+                        close();
+                    }
+                } catch (RuntimeException e) {
+                    close();
+                    throw new CourgetteException(String.format("Unable to read %s -> %s", reportFile, e.getMessage()), e);
+                }
+            }
+            return next != null;
+        }
 
-    private Envelope createTestRunFinished(List<Envelope> envelopes, String testId) {
-        Timestamp timestamp = envelopes.stream()
-                .filter(envelope -> envelope.getTestRunFinished().isPresent())
-                .map(envelope -> envelope.getTestRunFinished().get().getTimestamp())
-                .min(comparingLong(Timestamp::getSeconds))
-                .get();
+        @Override
+        public Envelope next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Envelope envelope = next;
+            next = null;
+            return envelope;
+        }
 
-        return Envelope.of(new TestRunFinished(null, true, timestamp, null, testId));
+        private void close() {
+            closed = true;
+            try {
+                inputStream.close();
+            } catch (IOException ignored) {
+            }
+        }
     }
 
-    private final Predicate<Envelope> gherkinEnvelope = (envelope) -> envelope.getGherkinDocument().isPresent();
-
-    private final Predicate<Envelope> metaEnvelope = (envelope) -> envelope.getMeta().isPresent();
-
-    private final Predicate<Envelope> testRunStartedOrFinishedEnvelope = (envelope) -> envelope.getTestRunStarted().isPresent() || envelope.getTestRunFinished().isPresent();
-
-    private final Predicate<Optional<TestCase>> testCase = (testCase) -> testCase.isPresent() && !testCase.get().getPickleId().equals("");
-
     private static class NdJsonMessageDeserializer implements NdjsonToMessageIterable.Deserializer {
         @Override
         public Envelope readValue(String json) throws IOException {
@@ -4,52 +4,25 @@ import io.cucumber.core.filter.Filters;
 import io.cucumber.core.gherkin.Feature;
 import io.cucumber.core.gherkin.Pickle;
 
-import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class CourgettePickleMatcher {
-    private final Feature feature;
-    private final Filters filters;
+    private final Map<Integer, CucumberPickleLocation> matchedLocations = new LinkedHashMap<>();
 
     CourgettePickleMatcher(Feature feature, Filters filters) {
-        this.feature = feature;
-        this.filters = filters;
+        for (Pickle pickle : feature.getPickles()) {
+            if (filters.test(pickle)) {
+                matchedLocations.putIfAbsent(pickle.getLocation().getLine(), new CucumberPickleLocation(pickle.getLocation().getLine(), pickle.getLocation().getColumn()));
+            }
+        }
     }
 
     public boolean matches() {
-        AtomicBoolean matched = new AtomicBoolean();
-
-        try {
-            feature.getPickles().forEach(pickle -> {
-                matched.set(filters.test(pickle));
-                if (matched.get()) {
-                    throw new ConditionSatisfiedException();
-                }
-            });
-        } catch (ConditionSatisfiedException ignored) {
-        }
-        return matched.get();
+        return !matchedLocations.isEmpty();
     }
 
     public CucumberPickleLocation matchLocation(int pickleLocationLine) {
-        final CucumberPickleLocation[] location = {null};
-
-        List<Pickle> pickles = feature.getPickles();
-
-        try {
-            pickles.stream().filter(p -> p.getLocation().getLine() == pickleLocationLine)
-                    .findFirst()
-                    .ifPresent(pickleEvent -> {
-                        if (filters.test(pickleEvent)) {
-                            location[0] = new CucumberPickleLocation(pickleEvent.getLocation().getLine(), pickleEvent.getLocation().getColumn());
-                            throw new ConditionSatisfiedException();
-                        }
-                    });
-        } catch (ConditionSatisfiedException ignored) {
-        }
-        return location[0];
-    }
-
-    private class ConditionSatisfiedException extends RuntimeException {
+        return matchedLocations.get(pickleLocationLine);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package courgette.runtime;
 
+import courgette.api.CourgetteExecutionMode;
 import courgette.api.CourgetteOptions;
 import courgette.api.CourgettePlugin;
 import courgette.api.CourgetteRunLevel;
@@ -7,8 +8,10 @@ import courgette.api.HtmlReport;
 import courgette.api.MobileDeviceType;
 import courgette.runtime.utils.SystemPropertyUtils;
 
+import java.io.File;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -97,6 +100,14 @@ public class CourgetteProperties {
         return Arrays.stream(courgetteOptions.cucumberOptions().plugin()).anyMatch(plugin -> plugin.startsWith("junit"));
     }
 
+    public boolean isHtmlReportImageEmbedded() {
+        return courgetteOptions.embedHtmlReportImages() && !isHtmlReportPaginated();
+    }
+
+    public boolean isHtmlReportPaginated() {
+        return courgetteOptions.paginateHtmlReport();
+    }
+
     public boolean shouldPersistCucumberJsonReports() {
         return courgetteOptions.persistParallelCucumberJsonReports();
     }
@@ -109,6 +120,26 @@ public class CourgetteProperties {
         return courgetteOptions.mobileDeviceType().equals(MobileDeviceType.SIMULATOR_AND_REAL_DEVICE);
     }
 
+    public boolean useWorkerPool() {
+        return CourgetteExecutionMode.WORKER.equals(courgetteOptions.executionMode())
+                || CourgetteExecutionMode.IN_PROCESS.equals(courgetteOptions.executionMode())
+                || CourgetteExecutionMode.DISTRIBUTED.equals(courgetteOptions.executionMode());
+    }
+
+    public boolean isDistributed() {
+        return CourgetteExecutionMode.DISTRIBUTED.equals(courgetteOptions.executionMode());
+    }
+
+    public List<String> getClassPath() {
+        return useCustomClasspath()
+                ? Arrays.asList(courgetteOptions.classPath())
+                : Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator));
+    }
+
+    public boolean isScenarioBatchingEnabled() {
+        return !isFeatureRunLevel() && courgetteOptions.scenarioBatchSize() > 1;
+    }
+
     public boolean isRerunEnabled() {
         return courgetteOptions.rerunFailedScenarios() && courgetteOptions.rerunAttempts() > 0;
     }
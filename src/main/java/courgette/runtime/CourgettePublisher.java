@@ -5,4 +5,8 @@ import courgette.runtime.event.CourgetteEventHolder;
 public interface CourgettePublisher {
 
     void publish(CourgetteEventHolder eventHolder);
+
+    default boolean isEnabled() {
+        return true;
+    }
 }
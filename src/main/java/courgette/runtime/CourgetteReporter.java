@@ -1,5 +1,6 @@
 package courgette.runtime;
 
+import courgette.runtime.report.EmbeddingStore;
 import courgette.runtime.report.JsonReportParser;
 import courgette.runtime.utils.FileUtils;
 import io.cucumber.messages.types.Envelope;
@@ -8,101 +9,142 @@ import java.io.File;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
 import static courgette.runtime.utils.FileUtils.writeFile;
 
 class CourgetteReporter {
     private final CourgetteProperties courgetteProperties;
     private final List<CourgetteReportOptions> courgetteReportOptions;
-    private final Map<String, Collection<String>> errors = new HashMap<>();
+    private final Map<String, List<CourgetteReportOptions>> groupedReports;
+    private final Map<String, Collection<String>> errors = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendingGroupReports = new HashMap<>();
+    private final Set<CourgetteReportOptions> mergedReports = new HashSet<>();
+    private final List<Future<?>> pendingReports = new ArrayList<>();
+    private ExecutorService reportWriter;
+    private ExecutorService messageProcessor;
+    private CompletableFuture<Void> messageWriter = CompletableFuture.completedFuture(null);
     private JsonReportParser jsonReportParser;
+    private EmbeddingStore embeddingStore;
+    private String jsonFile;
+    private String ndJsonFile;
+    private Optional<String> htmlReportFile;
+    private Optional<String> xmlReportFile;
+    private CucumberJsonReporter cucumberJsonReporter;
+    private CucumberNdJsonReporter cucumberNdJsonReporter;
+    private CucumberHtmlReporter cucumberHtmlReporter;
+    private CucumberXmlReporter cucumberXmlReporter;
 
     public CourgetteReporter(List<CourgetteReportOptions> courgetteReportOptions, CourgetteProperties courgetteProperties) {
         this.courgetteProperties = courgetteProperties;
         this.courgetteReportOptions = courgetteReportOptions;
+        this.groupedReports = courgetteReportOptions.stream()
+                .collect(Collectors.groupingBy(CourgetteReportOptions::getFeatureId));
     }
 
-    Optional<String> createCucumberReports(List<String> reportFiles, boolean publishReport) {
-        final Optional<String> htmlReportFile = reportFiles.stream().filter(report -> report.endsWith(".html")).findFirst();
-        final Optional<String> jsonReportFile = reportFiles.stream().filter(report -> report.endsWith(".json")).findFirst();
-        final Optional<String> ndJsonReportFile = reportFiles.stream().filter(report -> report.endsWith(".ndjson")).findFirst();
-        final Optional<String> xmlReportFile = reportFiles.stream().filter(report -> report.endsWith(".xml")).findFirst();
+    /**
+     * Creates the combined Cucumber reports. Each test run report is merged on a background thread once it is
+     * handed over using {@link #addReport(CourgetteReportOptions)}.
+     */
+    void startCucumberReports(List<String> reportFiles, String embeddingStoreDir) {
+        htmlReportFile = reportFiles.stream().filter(report -> report.endsWith(".html")).findFirst();
+        xmlReportFile = reportFiles.stream().filter(report -> report.endsWith(".xml")).findFirst();
 
-        String jsonFile = jsonReportFile.orElseGet(() -> FileUtils.createTempFile("json").getPath());
+        jsonFile = reportFiles.stream().filter(report -> report.endsWith(".json")).findFirst()
+                .orElseGet(() -> FileUtils.createTempFile("json").getPath());
 
-        jsonReportParser = new JsonReportParser(jsonFile, courgetteProperties.isFeatureRunLevel());
+        ndJsonFile = reportFiles.stream().filter(report -> report.endsWith(".ndjson")).findFirst()
+                .orElseGet(() -> FileUtils.createTempFile("ndjson").getPath());
 
-        List<String> jsonReports = courgetteReportOptions.stream()
-                .map(CourgetteReportOptions::getJsonFile)
-                .collect(Collectors.toList());
+        embeddingStore = new EmbeddingStore(embeddingStoreDir);
 
-        CucumberJsonReporter cucumberJsonReporter = new CucumberJsonReporter(jsonFile, jsonReports.size());
-        jsonReports.forEach(cucumberJsonReporter::readAndWriteReport);
+        jsonReportParser = new JsonReportParser(jsonFile, courgetteProperties.isFeatureRunLevel(), embeddingStore);
 
-        if (cucumberJsonReporter.hasErrors()) {
-            errors.put(jsonFile, cucumberJsonReporter.getErrors().values());
-        }
+        cucumberJsonReporter = new CucumberJsonReporter(jsonFile, courgetteReportOptions.size());
 
-        Map<String, List<CourgetteReportOptions>> groupedReports = courgetteReportOptions.stream()
-                .collect(Collectors.groupingBy(CourgetteReportOptions::getFeatureId));
+        cucumberNdJsonReporter = new CucumberNdJsonReporter(ndJsonFile, groupedReports.size());
 
-        String ndJsonFile = ndJsonReportFile.orElseGet(() -> FileUtils.createTempFile("ndjson").getPath());
-
-        CucumberNdJsonReporter cucumberNdJsonReporter = new CucumberNdJsonReporter(ndJsonFile, groupedReports.size());
-
-        CucumberHtmlReporter cucumberHtmlReporter;
         if (htmlReportFile.isPresent() && courgetteProperties.isCucumberHtmlReportEnabled() && FileUtils.createFile(htmlReportFile.get())) {
             cucumberHtmlReporter = new CucumberHtmlReporter(htmlReportFile.get(), groupedReports.size());
-        } else {
-            cucumberHtmlReporter = null;
         }
 
-        groupedReports.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach((entry) -> {
-                    Map<String, List<List<Envelope>>> messages = cucumberNdJsonReporter.readReports(entry);
+        if (xmlReportFile.isPresent()) {
+            long xmlReports = courgetteReportOptions.stream().filter(report -> report.getXmlFile().isPresent()).count();
+            cucumberXmlReporter = new CucumberXmlReporter(xmlReportFile.get(), (int) xmlReports);
+        }
 
-                    if (!messages.isEmpty()) {
-                        List<Envelope> runLevelMessages = createRunLevelMessages(messages);
+        groupedReports.forEach((featureId, reports) -> pendingGroupReports.put(featureId, reports.size()));
 
-                        cucumberNdJsonReporter.writeReport(runLevelMessages);
+        reportWriter = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "courgette-report-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-                        if (cucumberHtmlReporter != null) {
-                            cucumberHtmlReporter.writeReport(runLevelMessages);
-                        }
-                    }
-                });
+        // the messages are processed while test runs are still running, so half of the processors are left for the test runs
+        messageProcessor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+            final Thread thread = new Thread(runnable, "courgette-report-processor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
-        if (cucumberNdJsonReporter.hasErrors()) {
-            errors.put(ndJsonFile, cucumberNdJsonReporter.getErrors().values());
+    synchronized void addReport(CourgetteReportOptions reportOptions) {
+        pendingReports.add(reportWriter.submit(() -> mergeReport(reportOptions)));
+    }
+
+    Optional<String> createCucumberReports(boolean publishReport) {
+        reportWriter.shutdown();
+        try {
+            reportWriter.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            printExceptionStackTrace(e);
         }
 
-        if (cucumberHtmlReporter != null && cucumberHtmlReporter.hasErrors()) {
-            errors.put(htmlReportFile.get(), cucumberHtmlReporter.getErrors().values());
+        for (Future<?> pendingReport : pendingReports) {
+            try {
+                pendingReport.get();
+            } catch (InterruptedException | ExecutionException e) {
+                addError(jsonFile, e);
+            }
         }
 
-        if (xmlReportFile.isPresent()) {
-            List<String> xmlReports = courgetteReportOptions.stream()
-                    .map(CourgetteReportOptions::getXmlFile)
-                    .map(report -> report.orElse(null))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+        courgetteReportOptions.stream()
+                .filter(reportOptions -> !mergedReports.contains(reportOptions))
+                .forEach(this::mergeReport);
 
-            boolean mergeTestCaseName = courgetteProperties.isReportPortalPluginEnabled();
+        messageWriter.join();
+        messageProcessor.shutdown();
 
-            CucumberXmlReporter cucumberXmlReporter = new CucumberXmlReporter(xmlReportFile.get(), xmlReports.size());
-            xmlReports.forEach(report -> cucumberXmlReporter.readAndWriteReport(report, mergeTestCaseName, courgetteProperties.isReportPortalPluginEnabled()));
+        if (cucumberJsonReporter.hasErrors()) {
+            addErrors(jsonFile, cucumberJsonReporter.getErrors().values());
+        }
 
-            if (cucumberXmlReporter.hasErrors()) {
-                errors.put(xmlReportFile.get(), cucumberXmlReporter.getErrors().values());
-            }
+        if (cucumberNdJsonReporter.hasErrors()) {
+            addErrors(ndJsonFile, cucumberNdJsonReporter.getErrors().values());
+        }
+
+        if (cucumberHtmlReporter != null && cucumberHtmlReporter.hasErrors()) {
+            addErrors(htmlReportFile.get(), cucumberHtmlReporter.getErrors().values());
+        }
+
+        if (cucumberXmlReporter != null && cucumberXmlReporter.hasErrors()) {
+            addErrors(xmlReportFile.get(), cucumberXmlReporter.getErrors().values());
         }
 
         Optional<String> publishedReport = Optional.empty();
@@ -129,6 +171,12 @@ class CourgetteReporter {
         return jsonReportParser;
     }
 
+    public void deleteEmbeddingStore() {
+        if (embeddingStore != null) {
+            embeddingStore.delete();
+        }
+    }
+
     public void createErrorReport() {
         StringBuilder errors = new StringBuilder();
         this.errors.forEach((key, value1) -> {
@@ -171,10 +219,82 @@ class CourgetteReporter {
         return reportUrl;
     }
 
-    private List<Envelope> createRunLevelMessages(Map<String, List<List<Envelope>>> messages) {
-        final CourgetteNdJsonCreator ndJsonCreator = new CourgetteNdJsonCreator(messages);
+    /**
+     * Merges a test run report. A report which cannot be merged is recorded as a report processing error, and is still counted
+     * so the combined reports of its feature are written and closed.
+     */
+    private void mergeReport(CourgetteReportOptions reportOptions) {
+        if (!mergedReports.add(reportOptions)) {
+            return;
+        }
 
-        return new ArrayList<>(courgetteProperties.isFeatureRunLevel() ?
-                ndJsonCreator.createFeatureMessages() : ndJsonCreator.createScenarioMessages());
+        try {
+            cucumberJsonReporter.readAndWriteReport(reportOptions.getJsonFile());
+
+            if (cucumberXmlReporter != null && reportOptions.getXmlFile().isPresent()) {
+                boolean isReportPortalEnabled = courgetteProperties.isReportPortalPluginEnabled();
+                cucumberXmlReporter.readAndWriteReport(reportOptions.getXmlFile().get(), isReportPortalEnabled, isReportPortalEnabled);
+            }
+        } catch (Throwable throwable) {
+            addError(reportOptions.getJsonFile(), throwable);
+        } finally {
+            mergeFeatureMessages(reportOptions.getFeatureId());
+        }
+    }
+
+    private void mergeFeatureMessages(String featureId) {
+        if (pendingGroupReports.merge(featureId, -1, Integer::sum) == 0) {
+            final CompletableFuture<List<Envelope>> messages = CompletableFuture.supplyAsync(() -> createRunLevelMessages(featureId), messageProcessor);
+
+            // each stage recovers from a failure so the messages of the following features are still written and the reports are closed
+            messageWriter = messageWriter
+                    .thenCombine(messages, (written, runLevelMessages) -> {
+                        writeRunLevelMessages(runLevelMessages);
+                        return (Void) null;
+                    })
+                    .exceptionally(throwable -> {
+                        addError(ndJsonFile, throwable);
+                        return null;
+                    });
+        }
+    }
+
+    private void addError(String reportFile, Throwable throwable) {
+        addErrors(reportFile, Collections.singletonList(String.valueOf(throwable.getMessage())));
+        printExceptionStackTrace(throwable);
+    }
+
+    private void addErrors(String reportFile, Collection<String> reportErrors) {
+        errors.computeIfAbsent(reportFile, file -> Collections.synchronizedList(new ArrayList<>())).addAll(reportErrors);
+    }
+
+    /**
+     * Reads and merges the messages of a feature. Features are processed in parallel while
+     * {@link #writeRunLevelMessages(List)} is chained so the features are written one after another in the order they completed.
+     */
+    private List<Envelope> createRunLevelMessages(String featureId) {
+        try {
+            final List<Iterable<Envelope>> messages = cucumberNdJsonReporter.readReports(groupedReports.get(featureId));
+
+            if (messages.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            final CourgetteNdJsonCreator ndJsonCreator = new CourgetteNdJsonCreator(messages, cucumberNdJsonReporter::addError);
+
+            return new ArrayList<>(courgetteProperties.isFeatureRunLevel() ?
+                    ndJsonCreator.createFeatureMessages() : ndJsonCreator.createScenarioMessages());
+        } catch (Throwable throwable) {
+            cucumberNdJsonReporter.addError(throwable);
+            return Collections.emptyList();
+        }
+    }
+
+    private void writeRunLevelMessages(List<Envelope> runLevelMessages) {
+        cucumberNdJsonReporter.writeReport(runLevelMessages);
+
+        if (cucumberHtmlReporter != null) {
+            cucumberHtmlReporter.writeReport(runLevelMessages);
+        }
     }
 }
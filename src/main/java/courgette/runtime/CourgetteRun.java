@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.sql.Timestamp;
+import java.util.List;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class CourgetteRun {
@@ -17,6 +18,11 @@ public class CourgetteRun {
     private final Integer exitCode;
     private final String error;
     private final CourgetteMobileDevice mobileDevice;
+    private Integer concurrency;
+    private Long deviceWaitTime;
+    private List<CourgetteConcurrencyAdjustment> concurrencyAdjustments;
+    private String rerunSkippedReason;
+    private Integer batchSize;
 
     public CourgetteRun(String featureUri,
                         long threadId,
@@ -69,4 +75,57 @@ public class CourgetteRun {
     public CourgetteMobileDevice getMobileDevice() {
         return mobileDevice;
     }
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    void setConcurrency(Integer concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return the time in milliseconds this run waited for a mobile device to be allocated
+     */
+    public Long getDeviceWaitTime() {
+        return deviceWaitTime;
+    }
+
+    void setDeviceWaitTime(Long deviceWaitTime) {
+        this.deviceWaitTime = deviceWaitTime;
+    }
+
+    /**
+     * @return the adjustments to the number of concurrent threads which were made before this run started,
+     * and for the last run to start, also the adjustments made after it started
+     */
+    public List<CourgetteConcurrencyAdjustment> getConcurrencyAdjustments() {
+        return concurrencyAdjustments;
+    }
+
+    void setConcurrencyAdjustments(List<CourgetteConcurrencyAdjustment> concurrencyAdjustments) {
+        this.concurrencyAdjustments = concurrencyAdjustments;
+    }
+
+    /**
+     * @return the reason this failed run was not re-run by the re-run policy or the re-run budget
+     */
+    public String getRerunSkippedReason() {
+        return rerunSkippedReason;
+    }
+
+    void setRerunSkippedReason(String rerunSkippedReason) {
+        this.rerunSkippedReason = rerunSkippedReason;
+    }
+
+    /**
+     * @return the number of scenarios which were run together with this scenario in one Cucumber invocation
+     */
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
 }
@@ -0,0 +1,235 @@
+package courgette.runtime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
+
+class CourgetteRunHistory {
+    private static final int MAX_ENTRIES_PER_TEST = 10;
+    private static final int MIN_FAILED_RUNS = 3;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final File historyFile;
+    private final Map<String, List<Entry>> history = new HashMap<>();
+    private final ConcurrentLinkedQueue<Entry> newEntries = new ConcurrentLinkedQueue<>();
+    private final Map<String, Entry> pendingEntries = new ConcurrentHashMap<>();
+    private int historySize;
+
+    CourgetteRunHistory(String historyFile) {
+        this.historyFile = new File(historyFile);
+        load();
+    }
+
+    Optional<Long> getExpectedDuration(String historyId) {
+        final List<Entry> entries = history.get(historyId);
+
+        if (entries == null || entries.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(entries.stream().mapToLong(Entry::getDuration).sum() / entries.size());
+    }
+
+    /**
+     * @return a score between 0 and 1 of how often the test passed after a re-run or changed between passing and failing in previous test runs
+     */
+    double getFlakiness(String historyId) {
+        final List<Entry> entries = getEntriesWithStatus(historyId);
+
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        final long passedAfterRerun = entries.stream().filter(entry -> CourgetteRunResult.Status.PASSED_AFTER_RERUN.name().equals(entry.getStatus())).count();
+
+        int statusChanges = 0;
+        for (int i = 1; i < entries.size(); i++) {
+            if (entries.get(i).isPassed() != entries.get(i - 1).isPassed()) {
+                statusChanges++;
+            }
+        }
+
+        final double rerunScore = (double) passedAfterRerun / entries.size();
+        final double statusChangeScore = entries.size() > 1 ? (double) statusChanges / (entries.size() - 1) : 0;
+        return Math.max(rerunScore, statusChangeScore);
+    }
+
+    /**
+     * @return true if the test failed without passing after a re-run in each of the last test runs
+     */
+    boolean isDeterministicFailure(String historyId) {
+        final List<Entry> entries = getEntriesWithStatus(historyId);
+
+        return entries.size() >= MIN_FAILED_RUNS &&
+                entries.subList(entries.size() - MIN_FAILED_RUNS, entries.size()).stream().noneMatch(Entry::isPassed);
+    }
+
+    void record(CourgetteRunnerInfo runnerInfo, CourgetteRun run) {
+        if (!run.isRerun()) {
+            final long duration = run.getEndTimestamp().getTime() - run.getStartTimestamp().getTime();
+            record(runnerInfo, run.getStartTimestamp().getTime(), duration);
+        }
+    }
+
+    void record(CourgetteRunnerInfo runnerInfo, long timestamp, long duration) {
+        pendingEntries.put(runnerInfo.getHistoryId(), new Entry(runnerInfo.getHistoryId(), timestamp, duration));
+    }
+
+    void recordResult(CourgetteRunnerInfo runnerInfo, CourgetteRunResult.Status status) {
+        final Entry entry = pendingEntries.remove(runnerInfo.getHistoryId());
+
+        if (entry != null) {
+            entry.status = status.name();
+            newEntries.add(entry);
+        }
+    }
+
+    void save() {
+        newEntries.addAll(pendingEntries.values());
+        pendingEntries.clear();
+
+        if (newEntries.isEmpty()) {
+            return;
+        }
+
+        newEntries.forEach(entry -> addEntry(history, entry));
+
+        final boolean compact = historySize > history.size() * MAX_ENTRIES_PER_TEST * 2;
+
+        // the history file is locked as it can be shared by test runs which are running at the same time, closing the channel releases the lock
+        try (FileChannel channel = FileChannel.open(historyFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.lock();
+
+            final StringBuilder lines = new StringBuilder();
+
+            if (compact) {
+                final Map<String, List<Entry>> currentHistory = new HashMap<>();
+                readEntries(new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8)),
+                        entry -> addEntry(currentHistory, entry));
+                newEntries.forEach(entry -> addEntry(currentHistory, entry));
+
+                for (List<Entry> entries : currentHistory.values()) {
+                    for (Entry entry : entries) {
+                        lines.append(mapper.writeValueAsString(entry)).append("\n");
+                    }
+                }
+                channel.truncate(0);
+            } else {
+                for (Entry entry : newEntries) {
+                    lines.append(mapper.writeValueAsString(entry)).append("\n");
+                }
+            }
+
+            channel.position(channel.size());
+            final ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            printExceptionStackTrace(e);
+        }
+        newEntries.clear();
+    }
+
+    private void load() {
+        if (!historyFile.exists()) {
+            historyFile.getParentFile().mkdirs();
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(historyFile.toPath(), StandardCharsets.UTF_8)) {
+            readEntries(reader, entry -> {
+                addEntry(history, entry);
+                historySize++;
+            });
+        } catch (IOException e) {
+            printExceptionStackTrace(e);
+        }
+    }
+
+    private void readEntries(BufferedReader reader, Consumer<Entry> consumer) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                try {
+                    consumer.accept(mapper.readValue(line, Entry.class));
+                } catch (JsonProcessingException e) {
+                    // a line which is still being written by another test run is skipped
+                }
+            }
+        }
+    }
+
+    private List<Entry> getEntriesWithStatus(String historyId) {
+        final List<Entry> entries = history.getOrDefault(historyId, Collections.emptyList());
+        return entries.stream().filter(entry -> entry.getStatus() != null).collect(Collectors.toList());
+    }
+
+    private void addEntry(Map<String, List<Entry>> history, Entry entry) {
+        final List<Entry> entries = history.computeIfAbsent(entry.getId(), id -> new ArrayList<>());
+        entries.add(entry);
+
+        if (entries.size() > MAX_ENTRIES_PER_TEST) {
+            entries.remove(0);
+        }
+    }
+
+    static class Entry {
+        private String id;
+        private long timestamp;
+        private long duration;
+        private String status;
+
+        Entry() {
+        }
+
+        Entry(String id, long timestamp, long duration) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.duration = duration;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getDuration() {
+            return duration;
+        }
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String getStatus() {
+            return status;
+        }
+
+        boolean isPassed() {
+            return status != null && status.startsWith(CourgetteRunResult.Status.PASSED.name());
+        }
+    }
+}
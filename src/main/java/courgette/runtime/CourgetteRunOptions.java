@@ -1,7 +1,10 @@
 package courgette.runtime;
 
+import courgette.api.CourgetteEventBackpressure;
+import courgette.api.CourgetteExecutionMode;
 import courgette.api.CourgetteOptions;
 import courgette.api.CourgettePlugin;
+import courgette.api.CourgetteRerunPolicy;
 import courgette.api.CourgetteRunLevel;
 import courgette.api.CourgetteTestOutput;
 import courgette.api.CucumberOptions;
@@ -152,6 +155,86 @@ public class CourgetteRunOptions implements CourgetteOptions {
         return SystemPropertyUtils.getBoolProperty(CourgetteSystemProperty.GENERATE_COURGETTE_RUN_LOG, courgetteOptions.generateCourgetteRunLog());
     }
 
+    @Override
+    public CourgetteExecutionMode executionMode() {
+        return SystemPropertyUtils.getEnumProperty(CourgetteSystemProperty.EXECUTION_MODE, CourgetteExecutionMode.class, courgetteOptions.executionMode());
+    }
+
+    @Override
+    public int recycleWorkerAfter() {
+        return SystemPropertyUtils.getIntProperty(CourgetteSystemProperty.RECYCLE_WORKER_AFTER, courgetteOptions.recycleWorkerAfter());
+    }
+
+    @Override
+    public boolean optimizeRunOrder() {
+        return SystemPropertyUtils.getBoolProperty(CourgetteSystemProperty.OPTIMIZE_RUN_ORDER, courgetteOptions.optimizeRunOrder());
+    }
+
+    @Override
+    public boolean adaptiveThreads() {
+        return SystemPropertyUtils.getBoolProperty(CourgetteSystemProperty.ADAPTIVE_THREADS, courgetteOptions.adaptiveThreads());
+    }
+
+    @Override
+    public int minThreads() {
+        return SystemPropertyUtils.getIntProperty(CourgetteSystemProperty.MIN_THREADS, courgetteOptions.minThreads());
+    }
+
+    @Override
+    public boolean embedHtmlReportImages() {
+        return SystemPropertyUtils.getBoolProperty(CourgetteSystemProperty.EMBED_HTML_REPORT_IMAGES, courgetteOptions.embedHtmlReportImages());
+    }
+
+    @Override
+    public boolean paginateHtmlReport() {
+        return SystemPropertyUtils.getBoolProperty(CourgetteSystemProperty.PAGINATE_HTML_REPORT, courgetteOptions.paginateHtmlReport());
+    }
+
+    @Override
+    public CourgetteEventBackpressure eventBackpressure() {
+        return SystemPropertyUtils.getEnumProperty(CourgetteSystemProperty.EVENT_BACKPRESSURE, CourgetteEventBackpressure.class, courgetteOptions.eventBackpressure());
+    }
+
+    @Override
+    public CourgetteRerunPolicy rerunPolicy() {
+        return SystemPropertyUtils.getEnumProperty(CourgetteSystemProperty.RERUN_POLICY, CourgetteRerunPolicy.class, courgetteOptions.rerunPolicy());
+    }
+
+    @Override
+    public int rerunBudget() {
+        return SystemPropertyUtils.getIntProperty(CourgetteSystemProperty.RERUN_BUDGET, courgetteOptions.rerunBudget());
+    }
+
+    @Override
+    public String changedFiles() {
+        return SystemPropertyUtils.getNonEmptyStringProperty(CourgetteSystemProperty.CHANGED_FILES, courgetteOptions.changedFiles(), "");
+    }
+
+    @Override
+    public int scenarioBatchSize() {
+        return SystemPropertyUtils.getIntProperty(CourgetteSystemProperty.SCENARIO_BATCH_SIZE, courgetteOptions.scenarioBatchSize());
+    }
+
+    @Override
+    public int scenarioBatchDuration() {
+        return SystemPropertyUtils.getIntProperty(CourgetteSystemProperty.SCENARIO_BATCH_DURATION, courgetteOptions.scenarioBatchDuration());
+    }
+
+    @Override
+    public int coordinatorPort() {
+        return SystemPropertyUtils.getIntProperty(CourgetteSystemProperty.COORDINATOR_PORT, courgetteOptions.coordinatorPort());
+    }
+
+    @Override
+    public String coordinatorHost() {
+        return SystemPropertyUtils.getNonEmptyStringProperty(CourgetteSystemProperty.COORDINATOR_HOST, courgetteOptions.coordinatorHost(), "");
+    }
+
+    @Override
+    public String coordinatorToken() {
+        return SystemPropertyUtils.getNonEmptyStringProperty(CourgetteSystemProperty.COORDINATOR_TOKEN, courgetteOptions.coordinatorToken(), "");
+    }
+
     @Override
     public Class<? extends Annotation> annotationType() {
         return null;
@@ -193,6 +276,11 @@ public class CourgetteRunOptions implements CourgetteOptions {
                 throw new CourgetteException("Mobile device is required when using the Courgette Mobile Device Allocator plugin");
             }
 
+            if (!executionMode().equals(CourgetteExecutionMode.PROCESS)) {
+                throw new CourgetteException(String.format("The Courgette Mobile Device Allocator plugin cannot be used with execution mode: %s, " +
+                        "as each run must be started in a new JVM with the system properties of its device", executionMode()));
+            }
+
             if (mobileDeviceType().equals(MobileDeviceType.SIMULATOR)
                     && !mobileDevices.stream().allMatch(device -> device.split(":").length == 1)) {
                 throw new CourgetteException("You must only provide simulator device names (without udid) in the mobileDevice list when using mobile device type: SIMULATOR");
@@ -212,6 +300,10 @@ public class CourgetteRunOptions implements CourgetteOptions {
             if (realMobileDeviceTag().length > 0 && noRealDevices) {
                 throw new CourgetteException("You must provide a real mobile device (device:udid) in the mobileDevice list when using the realMobileDeviceTag option");
             }
+
+            if (!executionMode().equals(CourgetteExecutionMode.PROCESS)) {
+                throw new CourgetteException("The Courgette Mobile Device Allocator plugin can only be used with execution mode: PROCESS");
+            }
         }
     }
 
@@ -2,6 +2,7 @@ package courgette.runtime;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import courgette.api.CourgetteRerunPolicy;
 import courgette.integration.extentreports.ExtentReportsBuilder;
 import courgette.integration.extentreports.ExtentReportsProperties;
 import courgette.integration.reportportal.ReportPortalPublisher;
@@ -10,19 +11,25 @@ import courgette.runtime.event.CourgetteEvent;
 import courgette.runtime.event.CourgetteEventHolder;
 import courgette.runtime.report.model.Feature;
 import courgette.runtime.utils.FileUtils;
+import courgette.runtime.worker.CourgetteWorkerPool;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -38,72 +45,49 @@ public class CourgetteRunner {
     private final CourgetteRuntimeOptions defaultRuntimeOptions;
     private final CourgetteTestStatistics testStatistics;
     private final List<CourgetteRun> runs = new ArrayList<>();
+    private final Map<CourgetteRunnerInfo, CourgetteRun> lastRuns = new ConcurrentHashMap<>();
     private final List<CourgetteRunResult> runResults = new ArrayList<>();
     private final CourgetteReporter courgetteReporter;
     private final CourgetteRuntimePublisher runtimePublisher;
     private final CourgettePluginService courgettePluginService;
+    private final CourgetteWorkerPool workerPool;
+    private final CourgetteRunHistory runHistory;
+    private final AtomicInteger remainingReruns;
+    private CourgetteConcurrencyController concurrencyController;
     private final boolean canRunFeatures;
     private final AtomicReference<RunStatus> runStatus = new AtomicReference<>(RunStatus.OK);
     private String cucumberReportUrl = "#";
 
     public CourgetteRunner(List<CourgetteRunnerInfo> runnerInfoList, CourgetteProperties courgetteProperties) {
-        this.runnerInfoList = conditionallySort(runnerInfoList, courgetteProperties);
-        this.canRunFeatures = !runnerInfoList.isEmpty();
         this.courgetteProperties = courgetteProperties;
-        this.testStatistics = CourgetteTestStatistics.current();
         this.defaultRuntimeOptions = new CourgetteRuntimeOptions(courgetteProperties);
+        this.runHistory = createRunHistory();
+        this.remainingReruns = createRerunBudget();
+        this.runnerInfoList = conditionallySort(sortByExpectedDuration(runnerInfoList), courgetteProperties);
+        this.canRunFeatures = !runnerInfoList.isEmpty();
+        this.testStatistics = CourgetteTestStatistics.current();
         this.runtimePublisher = createRuntimePublisher(courgetteProperties, extractRunnerInfoFeatures());
         this.courgettePluginService = createCourgettePluginService();
+        this.workerPool = createWorkerPool();
         this.courgetteReporter = createCourgetteReporter();
     }
 
     public RunStatus run() {
-        final ExecutorService executor = Executors.newFixedThreadPool(optimizedThreadCount());
-
-        final Queue<CourgetteRunnerInfo> runnerQueue = new ArrayDeque<>(runnerInfoList);
-
-        while (!runnerQueue.isEmpty()) {
-            final CourgetteRunnerInfo runnerInfo = runnerQueue.poll();
-
-            final Map<String, List<String>> cucumberArgs = runnerInfo.getRuntimeOptions();
-
-            final io.cucumber.core.gherkin.Feature feature = runnerInfo.getFeature();
-            final Integer lineId = runnerInfo.getLineId();
-            final String featureUri = cucumberArgs.get(null).get(0);
-
-            this.runners.add(() -> {
-                if (runFeature(runnerInfo, cucumberArgs)) {
-                    addResultAndPublish(runnerInfo, new CourgetteRunResult(feature, lineId, featureUri, CourgetteRunResult.Status.PASSED));
-                    return true;
-                }
-
-                if (runnerInfo.allowRerun()) {
-                    String rerunFile = runnerInfo.getRerunFile();
-                    String rerun = readFile(rerunFile, false);
-                    final String rerunFeatureUri = evaluateRerunFeatureUri(rerun, featureUri);
-
-                    final Map<String, List<String>> rerunCucumberArgs = runnerInfo.getRerunRuntimeOptions(rerunFeatureUri);
-
-                    CourgetteRunResult rerunResult = new CourgetteRunResult(feature, lineId, rerunFeatureUri, CourgetteRunResult.Status.RERUN);
-                    runResults.add(rerunResult);
+        if (courgetteProperties.isScenarioBatchingEnabled()) {
+            createScenarioBatches().forEach(batch -> this.runners.add(() -> runScenarioBatch(batch)));
+        } else {
+            createRunners();
+        }
 
-                    if (rerunFeature(runnerInfo, rerunCucumberArgs, rerunResult)) {
-                        addResultAndPublish(runnerInfo, new CourgetteRunResult(feature, lineId, rerunFeatureUri, CourgetteRunResult.Status.PASSED_AFTER_RERUN));
-                        return true;
-                    } else {
-                        addResultAndPublish(runnerInfo, new CourgetteRunResult(feature, lineId, rerunFeatureUri, CourgetteRunResult.Status.FAILED_AFTER_RERUN));
-                    }
+        final ExecutorService executor = Executors.newFixedThreadPool(optimizedThreadCount());
 
-                    if (rerun != null) {
-                        reruns.add(rerun);
-                    }
-                } else {
-                    addResultAndPublish(runnerInfo, new CourgetteRunResult(feature, lineId, featureUri, CourgetteRunResult.Status.FAILED));
-                }
-                return false;
-            });
+        if (courgetteProperties.getCourgetteOptions().adaptiveThreads()) {
+            concurrencyController = new CourgetteConcurrencyController(courgetteProperties.getCourgetteOptions().minThreads(), optimizedThreadCount());
+            concurrencyController.start();
         }
 
+        courgetteReporter.startCucumberReports(defaultRuntimeOptions.getReportFiles(), defaultRuntimeOptions.getCourgetteEmbeddingStore());
+
         try {
             runtimePublisher.publish(createEventHolder(CourgetteEvent.TEST_RUN_STARTED));
             executor.invokeAll(runners);
@@ -114,16 +98,26 @@ public class CourgetteRunner {
             testStatistics.calculate(runResults, courgetteProperties);
             runtimePublisher.publish(createEventHolder(CourgetteEvent.TEST_RUN_FINISHED));
             runtimePublisher.publish(createTestRunSummaryEventHolder());
+            runtimePublisher.close();
             executor.shutdownNow();
+            if (concurrencyController != null) {
+                addRemainingConcurrencyAdjustments(concurrencyController.stop());
+            }
+            if (workerPool != null) {
+                workerPool.shutdown();
+            }
+            courgettePluginService.getCourgetteMobileDeviceAllocatorService().deleteSessionFiles();
+            if (runHistory != null) {
+                runHistory.save();
+            }
         }
 
         return runStatus.get();
     }
 
     public void createCucumberReport() {
-        final List<String> reportFiles = defaultRuntimeOptions.getReportFiles();
         final boolean publishReport = courgetteProperties.isCucumberReportPublisherEnabled();
-        courgetteReporter.createCucumberReports(reportFiles, publishReport).ifPresent(reportUrl -> cucumberReportUrl = reportUrl);
+        courgetteReporter.createCucumberReports(publishReport).ifPresent(reportUrl -> cucumberReportUrl = reportUrl);
         courgetteReporter.jsonReportParser().createFeatures();
         courgetteReporter.deleteTemporaryReports();
     }
@@ -192,6 +186,10 @@ public class CourgetteRunner {
         return canRunFeatures;
     }
 
+    public void deleteReportEmbeddings() {
+        courgetteReporter.deleteEmbeddingStore();
+    }
+
     public void printCourgetteTestStatistics() {
         testStatistics.printToConsole(courgetteProperties);
     }
@@ -200,11 +198,119 @@ public class CourgetteRunner {
         CourgetteTestFailure.printTestFailures(getFailures(), courgetteProperties.isFeatureRunLevel());
     }
 
+    private void createRunners() {
+        final Queue<CourgetteRunnerInfo> runnerQueue = new ArrayDeque<>(runnerInfoList);
+
+        while (!runnerQueue.isEmpty()) {
+            final CourgetteRunnerInfo runnerInfo = runnerQueue.poll();
+
+            final Map<String, List<String>> cucumberArgs = runnerInfo.getRuntimeOptions();
+
+            this.runners.add(() -> runAndRerunFeature(runnerInfo, cucumberArgs));
+        }
+    }
+
+    private boolean runAndRerunFeature(CourgetteRunnerInfo runnerInfo, Map<String, List<String>> cucumberArgs) {
+        final String featureUri = cucumberArgs.get(null).get(0);
+
+        if (runFeature(runnerInfo, cucumberArgs)) {
+            addResultAndPublish(runnerInfo, new CourgetteRunResult(runnerInfo.getFeature(), runnerInfo.getLineId(), featureUri, CourgetteRunResult.Status.PASSED));
+            return true;
+        }
+        return rerunFailedFeature(runnerInfo, featureUri);
+    }
+
+    private boolean rerunFailedFeature(CourgetteRunnerInfo runnerInfo, String featureUri) {
+        final io.cucumber.core.gherkin.Feature feature = runnerInfo.getFeature();
+        final Integer lineId = runnerInfo.getLineId();
+        final int rerunAttempts = runnerInfo.allowRerun() ? getRerunAttempts(runnerInfo) : 0;
+
+        if (rerunAttempts > 0 && acquireRerun(runnerInfo)) {
+            String rerunFile = runnerInfo.getRerunFile();
+            String rerun = readFile(rerunFile, false);
+            final String rerunFeatureUri = evaluateRerunFeatureUri(rerun, featureUri);
+
+            final Map<String, List<String>> rerunCucumberArgs = runnerInfo.getRerunRuntimeOptions(rerunFeatureUri);
+
+            CourgetteRunResult rerunResult = new CourgetteRunResult(feature, lineId, rerunFeatureUri, CourgetteRunResult.Status.RERUN);
+            runResults.add(rerunResult);
+
+            if (rerunFeature(runnerInfo, rerunCucumberArgs, rerunResult, rerunAttempts)) {
+                addResultAndPublish(runnerInfo, new CourgetteRunResult(feature, lineId, rerunFeatureUri, CourgetteRunResult.Status.PASSED_AFTER_RERUN));
+                return true;
+            } else {
+                addResultAndPublish(runnerInfo, new CourgetteRunResult(feature, lineId, rerunFeatureUri, CourgetteRunResult.Status.FAILED_AFTER_RERUN));
+            }
+
+            if (rerun != null) {
+                reruns.add(rerun);
+            }
+        } else {
+            addResultAndPublish(runnerInfo, new CourgetteRunResult(feature, lineId, featureUri, CourgetteRunResult.Status.FAILED));
+        }
+        return false;
+    }
+
+    private boolean runScenarioBatch(CourgetteScenarioBatch batch) {
+        if (batch.getRunnerInfoList().size() == 1) {
+            return runAndRerunFeature(batch.getRunnerInfo(), batch.getRunnerInfo().getRuntimeOptions());
+        }
+
+        CourgetteRun batchRun = null;
+
+        try {
+            processFeatureStart();
+            final Map<String, List<String>> cucumberArgs = batch.getRuntimeOptions();
+            batchRun = runWithinConcurrencyLimit(() -> new CourgetteFeatureRunner(batch.getRunnerInfo(), cucumberArgs, courgetteProperties, courgettePluginService, workerPool).run());
+        } catch (Throwable throwable) {
+            printExceptionStackTrace(throwable);
+        }
+
+        batch.readResults(batchRun != null && batchRun.isSuccessful());
+        batch.deleteFiles();
+
+        boolean passed = true;
+
+        for (CourgetteRunnerInfo runnerInfo : batch.getRunnerInfoList()) {
+            if (batchRun != null) {
+                final CourgetteRun run = batch.createRun(runnerInfo, batchRun);
+                runs.add(run);
+                lastRuns.put(runnerInfo, run);
+
+                if (runHistory != null && batch.hasRun(runnerInfo)) {
+                    runHistory.record(runnerInfo, run);
+                }
+            }
+
+            final String featureUri = batch.getScenarioPath(runnerInfo);
+
+            if (batch.isPassed(runnerInfo)) {
+                addResultAndPublish(runnerInfo, new CourgetteRunResult(runnerInfo.getFeature(), runnerInfo.getLineId(), featureUri, CourgetteRunResult.Status.PASSED));
+            } else {
+                passed &= rerunFailedFeature(runnerInfo, featureUri);
+            }
+        }
+        return passed;
+    }
+
+    private List<CourgetteScenarioBatch> createScenarioBatches() {
+        final long batchDuration = courgetteProperties.getCourgetteOptions().scenarioBatchDuration() * 1000L;
+
+        return CourgetteScenarioBatch.createBatches(runnerInfoList,
+                courgetteProperties.getCourgetteOptions().scenarioBatchSize(),
+                batchDuration,
+                runnerInfo -> runHistory != null ? runHistory.getExpectedDuration(runnerInfo.getHistoryId()) : Optional.empty());
+    }
+
     private boolean runFeature(CourgetteRunnerInfo runnerInfo, Map<String, List<String>> args) {
         try {
             processFeatureStart();
-            CourgetteRun run = new CourgetteFeatureRunner(runnerInfo, args, courgetteProperties, courgettePluginService).run();
+            CourgetteRun run = runWithinConcurrencyLimit(() -> new CourgetteFeatureRunner(runnerInfo, args, courgetteProperties, courgettePluginService, workerPool).run());
             runs.add(run);
+            lastRuns.put(runnerInfo, run);
+            if (runHistory != null) {
+                runHistory.record(runnerInfo, run);
+            }
             return run.isSuccessful();
         } catch (Throwable throwable) {
             printExceptionStackTrace(throwable);
@@ -212,24 +318,101 @@ public class CourgetteRunner {
         }
     }
 
-    private boolean rerunFeature(CourgetteRunnerInfo runnerInfo, Map<String, List<String>> args, CourgetteRunResult rerunResult) {
-        int rerunAttempts = courgetteProperties.getCourgetteOptions().rerunAttempts();
+    /**
+     * Adds the adjustments made after the last run started to that run, so every adjustment is written to the run log.
+     */
+    private void addRemainingConcurrencyAdjustments(List<CourgetteConcurrencyAdjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return;
+        }
 
-        rerunAttempts = Math.max(rerunAttempts, 1);
+        runs.stream()
+                .filter(run -> run.getStartTimestamp() != null)
+                .max(Comparator.comparing(CourgetteRun::getStartTimestamp))
+                .ifPresent(run -> {
+                    final List<CourgetteConcurrencyAdjustment> runAdjustments = new ArrayList<>();
+                    if (run.getConcurrencyAdjustments() != null) {
+                        runAdjustments.addAll(run.getConcurrencyAdjustments());
+                    }
+                    runAdjustments.addAll(adjustments);
+                    run.setConcurrencyAdjustments(runAdjustments);
+                });
+    }
 
-        while (rerunAttempts-- > 0) {
+    private CourgetteRun runWithinConcurrencyLimit(Callable<CourgetteRun> featureRunner) throws Exception {
+        if (concurrencyController == null) {
+            return featureRunner.call();
+        }
+
+        concurrencyController.acquire();
+        try {
+            final int concurrency = concurrencyController.getConcurrency();
+            final List<CourgetteConcurrencyAdjustment> adjustments = concurrencyController.pollAdjustments();
+            final CourgetteRun run = featureRunner.call();
+            run.setConcurrency(concurrency);
+            if (!adjustments.isEmpty()) {
+                run.setConcurrencyAdjustments(adjustments);
+            }
+            return run;
+        } finally {
+            concurrencyController.release();
+        }
+    }
+
+    private boolean rerunFeature(CourgetteRunnerInfo runnerInfo, Map<String, List<String>> args, CourgetteRunResult rerunResult, int rerunAttempts) {
+        int attempt = 0;
+
+        do {
             runtimePublisher.publish(createEventHolder(CourgetteEvent.TEST_RERUN, null, rerunResult));
             args.put("retry", new ArrayList<>());
             if (runFeature(runnerInfo, args)) {
                 return true;
             }
+        } while (++attempt < rerunAttempts && acquireRerun(runnerInfo));
+
+        return false;
+    }
+
+    private int getRerunAttempts(CourgetteRunnerInfo runnerInfo) {
+        final int rerunAttempts = Math.max(courgetteProperties.getCourgetteOptions().rerunAttempts(), 1);
+
+        if (runHistory == null || courgetteProperties.getCourgetteOptions().rerunPolicy() != CourgetteRerunPolicy.FLAKY) {
+            return rerunAttempts;
         }
+
+        final String historyId = runnerInfo.getHistoryId();
+
+        if (runHistory.isDeterministicFailure(historyId)) {
+            skipRerun(runnerInfo, "it also failed in the previous test runs");
+            return 0;
+        }
+        return runHistory.getFlakiness(historyId) > 0 ? rerunAttempts : 1;
+    }
+
+    private boolean acquireRerun(CourgetteRunnerInfo runnerInfo) {
+        if (remainingReruns == null) {
+            return true;
+        }
+
+        if (remainingReruns.getAndUpdate(reruns -> Math.max(reruns - 1, 0)) > 0) {
+            return true;
+        }
+
+        skipRerun(runnerInfo, String.format("the re-run budget of %d has been used", courgetteProperties.getCourgetteOptions().rerunBudget()));
         return false;
     }
 
+    private void skipRerun(CourgetteRunnerInfo runnerInfo, String reason) {
+        final CourgetteRun run = lastRuns.get(runnerInfo);
+
+        if (run != null) {
+            run.setRerunSkippedReason(reason);
+        }
+    }
+
     private int optimizedThreadCount() {
-        return requiredThreadCount() > runnerInfoList.size()
-                ? runnerInfoList.size()
+        return requiredThreadCount() > runners.size()
+                ? runners.size()
                 : Math.max(requiredThreadCount(), 1);
     }
 
@@ -251,7 +434,7 @@ public class CourgetteRunner {
         final Set<CourgettePublisher> publishers = new HashSet<>();
         publishers.add(new SlackPublisher(courgetteProperties));
         publishers.add(new ReportPortalPublisher(courgetteProperties, features));
-        return new CourgetteRuntimePublisher(publishers);
+        return new CourgetteRuntimePublisher(publishers, courgetteProperties.getCourgetteOptions().eventBackpressure());
     }
 
     private CourgettePluginService createCourgettePluginService() {
@@ -261,9 +444,30 @@ public class CourgetteRunner {
         return new CourgettePluginService(mobileDeviceAllocatorService);
     }
 
+    private CourgetteWorkerPool createWorkerPool() {
+        if (!courgetteProperties.useWorkerPool()) {
+            return null;
+        }
+
+        try {
+            return new CourgetteWorkerPool(courgetteProperties.getCourgetteOptions().executionMode(),
+                    courgetteProperties.getClassPath(),
+                    courgetteProperties.getCourgetteOptions().recycleWorkerAfter(),
+                    courgetteProperties.getCourgetteOptions().coordinatorHost(),
+                    courgetteProperties.getCourgetteOptions().coordinatorPort(),
+                    courgetteProperties.getCourgetteOptions().coordinatorToken());
+        } catch (IOException e) {
+            throw new CourgetteException(e);
+        }
+    }
+
     private synchronized void addResultAndPublish(CourgetteRunnerInfo courgetteRunnerInfo, CourgetteRunResult
             courgetteRunResult) {
         runResults.add(courgetteRunResult);
+        if (runHistory != null) {
+            runHistory.recordResult(courgetteRunnerInfo, courgetteRunResult.getStatus());
+        }
+        courgetteReporter.addReport(courgetteRunnerInfo.getCourgetteReportOptions());
 
         switch (courgetteRunResult.getStatus()) {
             case PASSED:
@@ -309,6 +513,56 @@ public class CourgetteRunner {
         return courgetteProperties.isFeatureRunLevel() ? featureUri : (rerun != null && !rerun.trim().isEmpty()) ? rerun : featureUri;
     }
 
+    private CourgetteRunHistory createRunHistory() {
+        return courgetteProperties.getCourgetteOptions().optimizeRunOrder()
+                || courgetteProperties.getCourgetteOptions().rerunPolicy() == CourgetteRerunPolicy.FLAKY
+                || (courgetteProperties.isScenarioBatchingEnabled() && courgetteProperties.getCourgetteOptions().scenarioBatchDuration() > 0)
+                ? new CourgetteRunHistory(defaultRuntimeOptions.getCourgetteRunHistory())
+                : null;
+    }
+
+    private AtomicInteger createRerunBudget() {
+        final int rerunBudget = courgetteProperties.getCourgetteOptions().rerunBudget();
+        return rerunBudget > 0 ? new AtomicInteger(rerunBudget) : null;
+    }
+
+    private List<CourgetteRunnerInfo> sortByExpectedDuration(List<CourgetteRunnerInfo> runnerInfoList) {
+        if (runHistory == null || !courgetteProperties.getCourgetteOptions().optimizeRunOrder()) {
+            return runnerInfoList;
+        }
+
+        final Map<CourgetteRunnerInfo, Long> knownDurations = new HashMap<>();
+        long knownSteps = 0;
+
+        for (CourgetteRunnerInfo runnerInfo : runnerInfoList) {
+            final Optional<Long> duration = runHistory.getExpectedDuration(runnerInfo.getHistoryId());
+            if (duration.isPresent()) {
+                knownDurations.put(runnerInfo, addExpectedRerunDuration(runnerInfo, duration.get()));
+                knownSteps += runnerInfo.getStepCount();
+            }
+        }
+
+        final long knownDuration = knownDurations.values().stream().mapToLong(Long::longValue).sum();
+        final double stepDuration = knownSteps > 0 && knownDuration > 0 ? (double) knownDuration / knownSteps : 1;
+
+        final Map<CourgetteRunnerInfo, Double> expectedDurations = new HashMap<>();
+        runnerInfoList.forEach(runnerInfo -> expectedDurations.put(runnerInfo,
+                knownDurations.containsKey(runnerInfo)
+                        ? knownDurations.get(runnerInfo).doubleValue()
+                        : runnerInfo.getStepCount() * stepDuration));
+
+        runnerInfoList.sort(Comparator.comparing(expectedDurations::get).reversed());
+        return runnerInfoList;
+    }
+
+    private long addExpectedRerunDuration(CourgetteRunnerInfo runnerInfo, long duration) {
+        if (!runnerInfo.allowRerun()) {
+            return duration;
+        }
+        final double flakiness = runHistory.getFlakiness(runnerInfo.getHistoryId());
+        return (long) (duration * (1 + flakiness * courgetteProperties.getCourgetteOptions().rerunAttempts()));
+    }
+
     private List<CourgetteRunnerInfo> conditionallySort(List<CourgetteRunnerInfo> runnerInfoList, CourgetteProperties courgetteProperties) {
         if (courgetteProperties.isMobileDeviceAllocationPluginEnabled()
                 && courgetteProperties.isMultipleMobileDeviceTypes()) {
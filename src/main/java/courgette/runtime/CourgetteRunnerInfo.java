@@ -7,10 +7,14 @@ import io.cucumber.core.gherkin.Pickle;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 public class CourgetteRunnerInfo {
@@ -22,11 +26,15 @@ public class CourgetteRunnerInfo {
     private final Feature feature;
     private final boolean rerun;
     private final DeviceType deviceType;
+    private final PickleIndex pickleIndex;
+
+    private static final Map<Feature, PickleIndex> pickleIndexes = Collections.synchronizedMap(new WeakHashMap<>());
 
     public CourgetteRunnerInfo(CourgetteProperties courgetteProperties, Feature feature, Integer lineId) {
         this.courgetteProperties = courgetteProperties;
         this.feature = feature;
         this.lineId = lineId;
+        this.pickleIndex = pickleIndexes.computeIfAbsent(feature, PickleIndex::new);
         this.courgetteReportOptions = new CourgetteReportOptions(feature, lineId, courgetteProperties);
         this.courgetteRuntimeOptions = new CourgetteRuntimeOptions(courgetteProperties, courgetteReportOptions, feature);
         this.courgetteRunLevel = courgetteProperties.getCourgetteOptions().runLevel();
@@ -96,6 +104,19 @@ public class CourgetteRunnerInfo {
         return courgetteReportOptions;
     }
 
+    public String getHistoryId() {
+        String featureUri = feature.getUri().toString();
+
+        if ("file".equals(feature.getUri().getScheme())) {
+            featureUri = new File("").toURI().relativize(feature.getUri()).toString();
+        }
+        return lineId != null ? featureUri + ":" + lineId : featureUri;
+    }
+
+    public int getStepCount() {
+        return lineId == null ? pickleIndex.stepCount : pickleIndex.stepCountByLine.getOrDefault(lineId, 0);
+    }
+
     private Optional<DeviceType> determineDeviceType() {
         if (courgetteProperties.isMobileDeviceAllocationPluginEnabled()) {
             switch (courgetteProperties.getCourgetteOptions().mobileDeviceType()) {
@@ -105,26 +126,21 @@ public class CourgetteRunnerInfo {
                     return Optional.of(DeviceType.REAL_DEVICE);
                 case SIMULATOR_AND_REAL_DEVICE:
                     if (courgetteRunLevel.equals(CourgetteRunLevel.FEATURE)) {
-                        if (feature.getPickles().stream()
-                                .anyMatch(pickle -> pickle.getTags().stream()
-                                        .map(String::toLowerCase)
-                                        .anyMatch(tag ->
-                                                Arrays.stream(courgetteProperties.getCourgetteOptions().realMobileDeviceTag())
-                                                        .map(String::toLowerCase)
-                                                        .anyMatch(realDeviceTag -> realDeviceTag.contains(tag))
-                                        ))) {
+                        if (pickleIndex.tags.stream()
+                                .anyMatch(tag ->
+                                        Arrays.stream(courgetteProperties.getCourgetteOptions().realMobileDeviceTag())
+                                                .map(String::toLowerCase)
+                                                .anyMatch(realDeviceTag -> realDeviceTag.contains(tag))
+                                )) {
                             return Optional.of(DeviceType.REAL_DEVICE);
                         }
                     } else {
-                        if (feature.getPickles().stream()
-                                .filter(pickle -> pickle.getLocation().getLine() == lineId)
-                                .anyMatch(pickle -> pickle.getTags().stream()
-                                        .map(String::toLowerCase)
-                                        .anyMatch(tag ->
-                                                Arrays.stream(courgetteProperties.getCourgetteOptions().realMobileDeviceTag())
-                                                        .map(String::toLowerCase)
-                                                        .anyMatch(realDeviceTag -> realDeviceTag.equals(tag))
-                                        ))) {
+                        if (pickleIndex.tagsByLine.getOrDefault(lineId, Collections.emptySet()).stream()
+                                .anyMatch(tag ->
+                                        Arrays.stream(courgetteProperties.getCourgetteOptions().realMobileDeviceTag())
+                                                .map(String::toLowerCase)
+                                                .anyMatch(realDeviceTag -> realDeviceTag.equals(tag))
+                                )) {
                             return Optional.of(DeviceType.REAL_DEVICE);
                         }
                     }
@@ -142,12 +158,32 @@ public class CourgetteRunnerInfo {
                 Arrays.stream(excludedRerunTags)
                         .map(String::trim)
                         .map(String::toLowerCase)
-                        .noneMatch(featureTag -> feature.getPickles().stream().map(Pickle::getTags)
-                                .flatMap(Collection::stream)
-                                .map(String::trim)
-                                .map(String::toLowerCase)
-                                .collect(Collectors.toSet())
-                                .contains(featureTag));
+                        .noneMatch(pickleIndex.tags::contains);
 
     }
+
+    /**
+     * The tags and step counts of each pickle in a feature, which are shared by all runners of the same feature.
+     */
+    private static class PickleIndex {
+        private final Set<String> tags = new HashSet<>();
+        private final Map<Integer, Set<String>> tagsByLine = new HashMap<>();
+        private final Map<Integer, Integer> stepCountByLine = new HashMap<>();
+        private int stepCount;
+
+        PickleIndex(Feature feature) {
+            for (Pickle pickle : feature.getPickles()) {
+                final int line = pickle.getLocation().getLine();
+                final Set<String> pickleTags = pickle.getTags().stream()
+                        .map(String::trim)
+                        .map(String::toLowerCase)
+                        .collect(Collectors.toSet());
+
+                tags.addAll(pickleTags);
+                tagsByLine.computeIfAbsent(line, l -> new HashSet<>()).addAll(pickleTags);
+                stepCountByLine.merge(line, pickle.getSteps().size(), Integer::sum);
+                stepCount += pickle.getSteps().size();
+            }
+        }
+    }
 }
@@ -60,6 +60,16 @@ class CourgetteRuntimeOptions {
         return new CommandlineOptionsParser(System.out).parse(runtimeOptions.toArray(new String[]{})).build();
     }
 
+    public RuntimeOptions getDryRunRuntimeOptions() {
+        final Map<String, List<String>> options = createRuntimeOptions(cucumberOptions, null);
+        final List<String> dryRunOptions = new ArrayList<>();
+
+        Arrays.asList("--glue", "--extraGlue", "--object-factory").forEach(option -> dryRunOptions.addAll(options.getOrDefault(option, Collections.emptyList())));
+        dryRunOptions.add("--dry-run");
+
+        return new CommandlineOptionsParser(System.out).parse(dryRunOptions.toArray(new String[]{})).build();
+    }
+
     public Map<String, List<String>> mapRuntimeOptions() {
         return createRuntimeOptions(cucumberOptions, cucumberResourcePath);
     }
@@ -92,6 +102,18 @@ class CourgetteRuntimeOptions {
         return String.format("%s/courgette-run-%s.json", reportTargetDir, courgetteProperties.getSessionId());
     }
 
+    public String getCourgetteEmbeddingStore() {
+        return String.format("%s/courgette-embeddings-%s", reportTargetDir, courgetteProperties.getSessionId());
+    }
+
+    public String getCourgetteRunHistory() {
+        return String.format("%s/courgette-run-history.ndjson", reportTargetDir);
+    }
+
+    public String getCourgetteTestImpactIndex() {
+        return String.format("%s/courgette-test-impact-index.json", reportTargetDir);
+    }
+
     private Map<String, List<String>> createRuntimeOptions(CucumberOptions cucumberOptions, String path) {
         final Map<String, List<String>> runtimeOptions = new HashMap<>();
 
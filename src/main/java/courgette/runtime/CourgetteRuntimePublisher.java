@@ -1,21 +1,45 @@
 package courgette.runtime;
 
+import courgette.api.CourgetteEventBackpressure;
 import courgette.runtime.event.CourgetteEventHolder;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
+import static courgette.runtime.CourgetteException.printError;
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
+
 public class CourgetteRuntimePublisher implements CourgettePublisher {
 
-    private final Set<CourgettePublisher> publishers = new HashSet<>();
+    private final List<CourgetteEventChannel> channels = new ArrayList<>();
 
-    public CourgetteRuntimePublisher(Set<CourgettePublisher> publishers) {
-        if (!publishers.isEmpty()) {
-            this.publishers.addAll(publishers);
-        }
+    public CourgetteRuntimePublisher(Set<CourgettePublisher> publishers, CourgetteEventBackpressure backpressure) {
+        publishers.stream()
+                .filter(CourgettePublisher::isEnabled)
+                .forEach(publisher -> channels.add(new CourgetteEventChannel(publisher, backpressure)));
     }
+
     @Override
     public void publish(CourgetteEventHolder eventHolder) {
-        publishers.forEach(p -> p.publish(eventHolder));
+        channels.forEach(channel -> channel.publish(eventHolder));
+    }
+
+    /**
+     * Waits for each publisher to receive all the published events. A publisher which did not receive every event is reported as an error.
+     */
+    public void close() {
+        for (CourgetteEventChannel channel : channels) {
+            try {
+                channel.close();
+
+                if (channel.hasLostEvents()) {
+                    printError(String.format("Courgette %s: not all events were delivered -> %s", channel.getPublisherName(), channel.getMetrics()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                printExceptionStackTrace(e);
+            }
+        }
     }
 }
@@ -0,0 +1,220 @@
+package courgette.runtime;
+
+import courgette.runtime.utils.FileUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
+
+/**
+ * A batch of scenarios which are run together in one Cucumber invocation, so short scenarios do not each pay the cost of starting a test run.
+ * The reports and result of each scenario are written separately by {@link CourgetteBatchFormatter}.
+ */
+class CourgetteScenarioBatch {
+    static final String SCENARIOS = "scenarios";
+    static final String RESULT_FILE = "result";
+
+    private final List<CourgetteRunnerInfo> runnerInfoList = new ArrayList<>();
+    private final Map<CourgetteRunnerInfo, String> scenarioPaths = new HashMap<>();
+    private final Map<CourgetteRunnerInfo, Boolean> results = new HashMap<>();
+    private final Map<CourgetteRunnerInfo, Timestamp> startTimes = new HashMap<>();
+    private final Map<CourgetteRunnerInfo, Timestamp> endTimes = new HashMap<>();
+    private String batchFile;
+    private String resultFile;
+    private long expectedDuration;
+
+    /**
+     * Groups the scenarios in order, starting a new batch when a batch has reached the batch size or when the next scenario would
+     * take the batch over the batch duration. Scenarios without an expected duration are only limited by the batch size.
+     */
+    static List<CourgetteScenarioBatch> createBatches(List<CourgetteRunnerInfo> runnerInfoList, int batchSize, long batchDuration,
+                                                      Function<CourgetteRunnerInfo, Optional<Long>> expectedDuration) {
+        final List<CourgetteScenarioBatch> batches = new ArrayList<>();
+        final Map<DeviceType, CourgetteScenarioBatch> openBatches = new EnumMap<>(DeviceType.class);
+
+        for (CourgetteRunnerInfo runnerInfo : runnerInfoList) {
+            final long duration = expectedDuration.apply(runnerInfo).orElse(0L);
+            final DeviceType deviceType = runnerInfo.getDeviceType() != null ? runnerInfo.getDeviceType() : DeviceType.SIMULATOR;
+
+            CourgetteScenarioBatch batch = openBatches.get(deviceType);
+
+            if (batch == null || batch.runnerInfoList.size() >= batchSize ||
+                    (batchDuration > 0 && batch.expectedDuration + duration > batchDuration)) {
+                batch = new CourgetteScenarioBatch();
+                batches.add(batch);
+                openBatches.put(deviceType, batch);
+            }
+
+            batch.runnerInfoList.add(runnerInfo);
+            batch.expectedDuration += duration;
+        }
+        return batches;
+    }
+
+    static Properties readBatchFile(File batchFile) throws IOException {
+        final Properties batch = new Properties();
+        try (InputStream inputStream = new FileInputStream(batchFile)) {
+            batch.load(inputStream);
+        }
+        return batch;
+    }
+
+    private CourgetteScenarioBatch() {
+    }
+
+    List<CourgetteRunnerInfo> getRunnerInfoList() {
+        return runnerInfoList;
+    }
+
+    CourgetteRunnerInfo getRunnerInfo() {
+        return runnerInfoList.get(0);
+    }
+
+    String getScenarioPath(CourgetteRunnerInfo runnerInfo) {
+        return scenarioPaths.get(runnerInfo);
+    }
+
+    /**
+     * @return the runtime options of the first scenario with the path of each scenario in the batch, where the report plugins of each
+     * scenario are replaced by a {@link CourgetteBatchFormatter}
+     */
+    Map<String, List<String>> getRuntimeOptions() throws IOException {
+        final String fileId = FileUtils.tempDirectory() + "courgette-batch-" + UUID.randomUUID();
+        batchFile = fileId + ".properties";
+        resultFile = fileId + "-result.properties";
+
+        final Properties batch = new Properties();
+        batch.setProperty(SCENARIOS, String.valueOf(runnerInfoList.size()));
+        batch.setProperty(RESULT_FILE, resultFile);
+
+        final List<String> paths = new ArrayList<>();
+        final List<String> plugins = new ArrayList<>();
+
+        for (int scenario = 0; scenario < runnerInfoList.size(); scenario++) {
+            final CourgetteRunnerInfo runnerInfo = runnerInfoList.get(scenario);
+            final Map<String, List<String>> runtimeOptions = runnerInfo.getRuntimeOptions();
+            final String scenarioPath = runtimeOptions.get(null).get(0);
+
+            scenarioPaths.put(runnerInfo, scenarioPath);
+            paths.add(scenarioPath);
+
+            batch.setProperty(scenario + ".uri", runnerInfo.getFeature().getUri().toString());
+            batch.setProperty(scenario + ".line", String.valueOf(runnerInfo.getLineId()));
+
+            final List<String> pluginOptions = runtimeOptions.get("--plugin");
+            int scenarioPlugin = 0;
+
+            for (int i = 1; i < pluginOptions.size(); i += 2) {
+                final String plugin = pluginOptions.get(i);
+
+                if (isScenarioReportPlugin(runnerInfo, plugin)) {
+                    batch.setProperty(scenario + ".plugin." + scenarioPlugin++, plugin);
+                } else if (scenario == 0) {
+                    plugins.add("--plugin");
+                    plugins.add(plugin);
+                }
+            }
+        }
+
+        plugins.add("--plugin");
+        plugins.add(CourgetteBatchFormatter.class.getName() + ":" + batchFile);
+
+        try (OutputStream outputStream = new FileOutputStream(batchFile)) {
+            batch.store(outputStream, null);
+        }
+
+        final Map<String, List<String>> runtimeOptions = getRunnerInfo().getRuntimeOptions();
+        runtimeOptions.put(null, paths);
+        runtimeOptions.put("--plugin", plugins);
+        return runtimeOptions;
+    }
+
+    /**
+     * Reads the result of each scenario. A scenario without a result has passed when the batch has passed, otherwise it has failed.
+     */
+    void readResults(boolean isBatchSuccessful) {
+        final Properties batchResults = new Properties();
+
+        if (resultFile != null && new File(resultFile).exists()) {
+            try (InputStream inputStream = new FileInputStream(resultFile)) {
+                batchResults.load(inputStream);
+            } catch (IOException e) {
+                printExceptionStackTrace(e);
+            }
+        }
+
+        for (int scenario = 0; scenario < runnerInfoList.size(); scenario++) {
+            final CourgetteRunnerInfo runnerInfo = runnerInfoList.get(scenario);
+            final String status = batchResults.getProperty(scenario + ".status");
+            final String start = batchResults.getProperty(scenario + ".start");
+            final String end = batchResults.getProperty(scenario + ".end");
+
+            results.put(runnerInfo, status != null ? "PASSED".equals(status) : isBatchSuccessful);
+
+            if (start != null && end != null) {
+                startTimes.put(runnerInfo, new Timestamp(Long.parseLong(start)));
+                endTimes.put(runnerInfo, new Timestamp(Long.parseLong(end)));
+            }
+        }
+    }
+
+    boolean isPassed(CourgetteRunnerInfo runnerInfo) {
+        return results.getOrDefault(runnerInfo, false);
+    }
+
+    /**
+     * @return true when the scenario was run, so its run has the time the scenario started and finished
+     */
+    boolean hasRun(CourgetteRunnerInfo runnerInfo) {
+        return startTimes.containsKey(runnerInfo);
+    }
+
+    /**
+     * Creates the run of a scenario from the run of the batch, with the result of the scenario and the time it started and finished.
+     * A scenario which was not run is given the time of the batch.
+     */
+    CourgetteRun createRun(CourgetteRunnerInfo runnerInfo, CourgetteRun batchRun) {
+        final boolean passed = isPassed(runnerInfo);
+
+        final CourgetteRun run = new CourgetteRun(getScenarioPath(runnerInfo),
+                batchRun.getThreadId(),
+                startTimes.getOrDefault(runnerInfo, batchRun.getStartTimestamp()),
+                endTimes.getOrDefault(runnerInfo, batchRun.getEndTimestamp()),
+                batchRun.isRerun(),
+                passed ? 0 : 1,
+                passed ? null : batchRun.getError(),
+                batchRun.getMobileDevice());
+
+        run.setConcurrency(batchRun.getConcurrency());
+        run.setDeviceWaitTime(batchRun.getDeviceWaitTime());
+        run.setBatchSize(runnerInfoList.size());
+        return run;
+    }
+
+    void deleteFiles() {
+        if (batchFile != null) {
+            FileUtils.deleteFileSilently(batchFile);
+            FileUtils.deleteFileSilently(resultFile);
+        }
+    }
+
+    private boolean isScenarioReportPlugin(CourgetteRunnerInfo runnerInfo, String plugin) {
+        return plugin.startsWith("json:") || plugin.startsWith("message:") || plugin.startsWith("junit:") ||
+                runnerInfo.getCourgetteReportOptions().getRerunFile().map(rerunFile -> plugin.equals("rerun:" + rerunFile)).orElse(false);
+    }
+}
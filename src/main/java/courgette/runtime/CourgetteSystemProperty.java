@@ -16,6 +16,8 @@ final class CourgetteSystemProperty {
     final static String DEVICE_NAME_SYSTEM_PROPERTY = "courgette.mobile.device.name";
     final static String UDID_SYSTEM_PROPERTY = "courgette.mobile.device.udid";
     final static String PARALLEL_PORT_SYSTEM_PROPERTY = "courgette.mobile.device.parallel.port";
+    final static String WARM_SESSION_SYSTEM_PROPERTY = "courgette.mobile.device.warm.session";
+    final static String SESSION_FILE_SYSTEM_PROPERTY = "courgette.mobile.device.session.file";
     final static String MOBILE_DEVICE_TYPE = "courgette.mobileDeviceType";
     final static String MOBILE_DEVICE = "courgette.mobileDevice";
     final static String REAL_MOBILE_DEVICE_TAG = "courgette.realMobileDeviceTag";
@@ -28,4 +30,20 @@ final class CourgetteSystemProperty {
     final static String FIXED_THREAD_DELAY = "courgette.fixedThreadDelay";
     final static String RANDOM_THREAD_DELAY = "courgette.randomThreadDelay";
     final static String GENERATE_COURGETTE_RUN_LOG = "courgette.generateCourgetteRunLog";
+    final static String EXECUTION_MODE = "courgette.executionMode";
+    final static String RECYCLE_WORKER_AFTER = "courgette.recycleWorkerAfter";
+    final static String OPTIMIZE_RUN_ORDER = "courgette.optimizeRunOrder";
+    final static String ADAPTIVE_THREADS = "courgette.adaptiveThreads";
+    final static String MIN_THREADS = "courgette.minThreads";
+    final static String EMBED_HTML_REPORT_IMAGES = "courgette.embedHtmlReportImages";
+    final static String PAGINATE_HTML_REPORT = "courgette.paginateHtmlReport";
+    final static String EVENT_BACKPRESSURE = "courgette.eventBackpressure";
+    final static String RERUN_POLICY = "courgette.rerunPolicy";
+    final static String RERUN_BUDGET = "courgette.rerunBudget";
+    final static String CHANGED_FILES = "courgette.changedFiles";
+    final static String SCENARIO_BATCH_SIZE = "courgette.scenarioBatchSize";
+    final static String SCENARIO_BATCH_DURATION = "courgette.scenarioBatchDuration";
+    final static String COORDINATOR_PORT = "courgette.coordinatorPort";
+    final static String COORDINATOR_HOST = "courgette.coordinatorHost";
+    final static String COORDINATOR_TOKEN = "courgette.coordinatorToken";
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package courgette.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.resource.ClassLoaders;
+import io.cucumber.core.runtime.Runtime;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStep;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static courgette.runtime.CourgetteException.printError;
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
+
+/**
+ * Maps each scenario to the glue classes of the steps and hooks it uses, so only the scenarios affected by a list of changed files are run.
+ * The index is built with a Cucumber dry run and is built again when a feature file or glue class has changed since it was saved.
+ */
+class CourgetteTestImpactIndex {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final File indexFile;
+    private final ClassLoader classLoader = ClassLoaders.getDefaultClassLoader();
+    private Index index;
+
+    CourgetteTestImpactIndex(String indexFile) {
+        this.indexFile = new File(indexFile);
+        load();
+    }
+
+    /**
+     * @return the scenarios affected by the changed files, or empty when all features and scenarios should be run
+     */
+    Optional<Set<String>> selectScenarios(List<Feature> features, RuntimeOptions dryRunOptions, String changedFilesList) {
+        final List<String> changedFiles;
+        try {
+            changedFiles = Files.readAllLines(Paths.get(changedFilesList), StandardCharsets.UTF_8).stream()
+                    .map(file -> file.trim().replace('\\', '/'))
+                    .filter(file -> !file.isEmpty())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            printError("Courgette Test Impact: Unable to read the changed files from " + changedFilesList + ", all features will be run");
+            return Optional.empty();
+        }
+
+        if (isStale(features) && !build(features, dryRunOptions)) {
+            return Optional.empty();
+        }
+
+        final Set<String> scenarios = new HashSet<>();
+
+        for (String changedFile : changedFiles) {
+            if (changedFile.endsWith(".feature")) {
+                index.getScenarios().keySet().stream()
+                        .filter(scenario -> isSameFile(changedFile, getFeaturePath(URI.create(scenario.substring(0, scenario.lastIndexOf(':'))))))
+                        .forEach(scenarios::add);
+                continue;
+            }
+
+            final Set<String> changedGlue = index.getGlue().keySet().stream()
+                    .filter(glue -> isSameFile(removeExtension(changedFile), glue.split("\\$")[0].replace('.', '/')))
+                    .collect(Collectors.toSet());
+
+            if (changedGlue.isEmpty()) {
+                printError(String.format("Courgette Test Impact: %s is not a feature file or glue class, all features will be run", changedFile));
+                return Optional.empty();
+            }
+
+            index.getScenarios().forEach((scenario, glue) -> {
+                if (glue.stream().anyMatch(changedGlue::contains)) {
+                    scenarios.add(scenario);
+                }
+            });
+        }
+
+        CourgetteTestStatistics.current().setTestImpact(String.format("%d of %d scenarios affected by %d changed files",
+                scenarios.size(), index.getScenarios().size(), changedFiles.size()));
+        return Optional.of(scenarios);
+    }
+
+    static String scenarioId(URI featureUri, int line) {
+        return featureUri + ":" + line;
+    }
+
+    private boolean isStale(List<Feature> features) {
+        if (index == null) {
+            return true;
+        }
+
+        final Map<String, Long> featureTimes = new HashMap<>();
+        features.forEach(feature -> featureTimes.put(feature.getUri().toString(), getFeatureModifiedTime(feature.getUri())));
+
+        return !featureTimes.equals(index.getFeatures()) ||
+                index.getGlue().entrySet().stream().anyMatch(glue -> getClassModifiedTime(glue.getKey()) != glue.getValue());
+    }
+
+    private boolean build(List<Feature> features, RuntimeOptions dryRunOptions) {
+        final Map<String, Set<String>> scenarios = new ConcurrentHashMap<>();
+
+        try {
+            final Runtime runtime = Runtime.builder()
+                    .withRuntimeOptions(dryRunOptions)
+                    .withClassLoader(() -> classLoader)
+                    .withFeatureSupplier(() -> features)
+                    .withAdditionalPlugins((ConcurrentEventListener) publisher -> publisher.registerHandlerFor(TestCaseStarted.class, event -> {
+                        final TestCase testCase = event.getTestCase();
+                        scenarios.put(scenarioId(testCase.getUri(), testCase.getLocation().getLine()), testCase.getTestSteps().stream()
+                                .map(TestStep::getCodeLocation)
+                                .map(this::getGlueClass)
+                                .filter(Optional::isPresent)
+                                .map(Optional::get)
+                                .collect(Collectors.toSet()));
+                    }))
+                    .build();
+
+            runtime.run();
+        } catch (Exception e) {
+            printError("Courgette Test Impact: Unable to index the glue used by each scenario, all features will be run");
+            printExceptionStackTrace(e);
+            return false;
+        }
+
+        final Index newIndex = new Index();
+        features.forEach(feature -> newIndex.getFeatures().put(feature.getUri().toString(), getFeatureModifiedTime(feature.getUri())));
+        scenarios.values().forEach(glue -> glue.forEach(glueClass -> newIndex.getGlue().put(glueClass, getClassModifiedTime(glueClass))));
+        newIndex.getScenarios().putAll(scenarios);
+
+        index = newIndex;
+        save();
+        return true;
+    }
+
+    private void load() {
+        if (indexFile.exists()) {
+            try {
+                index = mapper.readValue(indexFile, Index.class);
+            } catch (IOException e) {
+                printExceptionStackTrace(e);
+            }
+        }
+    }
+
+    private void save() {
+        try {
+            indexFile.getParentFile().mkdirs();
+            mapper.writeValue(indexFile, index);
+        } catch (IOException e) {
+            printExceptionStackTrace(e);
+        }
+    }
+
+    private Optional<String> getGlueClass(String codeLocation) {
+        if (codeLocation == null || !codeLocation.contains("(")) {
+            return Optional.empty();
+        }
+        final String method = codeLocation.substring(0, codeLocation.indexOf('('));
+        return method.contains(".") ? Optional.of(method.substring(0, method.lastIndexOf('.'))) : Optional.empty();
+    }
+
+    private long getFeatureModifiedTime(URI featureUri) {
+        if ("file".equals(featureUri.getScheme())) {
+            return new File(getFeaturePath(featureUri)).lastModified();
+        }
+        return getModifiedTime(classLoader.getResource(getFeaturePath(featureUri).replaceFirst("^/", "")));
+    }
+
+    private long getClassModifiedTime(String className) {
+        return getModifiedTime(classLoader.getResource(className.replace('.', '/') + ".class"));
+    }
+
+    private long getModifiedTime(URL resource) {
+        try {
+            if (resource != null && "file".equals(resource.getProtocol())) {
+                return new File(resource.toURI()).lastModified();
+            }
+        } catch (Exception ignored) {
+            // the modified time of resources inside jars is not checked
+        }
+        return 0;
+    }
+
+    private String getFeaturePath(URI featureUri) {
+        return featureUri.getPath() != null ? featureUri.getPath() : featureUri.getSchemeSpecificPart();
+    }
+
+    private String removeExtension(String file) {
+        final int extension = file.lastIndexOf('.');
+        return extension > file.lastIndexOf('/') ? file.substring(0, extension) : file;
+    }
+
+    private boolean isSameFile(String file, String otherFile) {
+        return file.equals(otherFile) || file.endsWith("/" + otherFile) || otherFile.endsWith("/" + file);
+    }
+
+    static class Index {
+        private Map<String, Long> features = new HashMap<>();
+        private Map<String, Long> glue = new HashMap<>();
+        private Map<String, Set<String>> scenarios = new HashMap<>();
+
+        public Map<String, Long> getFeatures() {
+            return features;
+        }
+
+        public Map<String, Long> getGlue() {
+            return glue;
+        }
+
+        public Map<String, Set<String>> getScenarios() {
+            return scenarios;
+        }
+    }
+}
@@ -15,6 +15,7 @@ public class CourgetteTestStatistics {
     private int rerun;
     private int passedAfterRerun;
     private String duration;
+    private String testImpact;
 
     private static CourgetteTestStatistics instance;
 
@@ -53,6 +54,17 @@ public class CourgetteTestStatistics {
         return passedAfterRerun;
     }
 
+    /**
+     * @return the number of scenarios selected by the changed files, or null when all scenarios were run
+     */
+    public String testImpact() {
+        return testImpact;
+    }
+
+    void setTestImpact(String testImpact) {
+        this.testImpact = testImpact;
+    }
+
     public String passedPercentage() {
         return calculatePercentage(passed);
     }
@@ -78,6 +90,9 @@ public class CourgetteTestStatistics {
         if (courgetteProperties.getCourgetteOptions().rerunFailedScenarios()) {
             System.out.println("Rerun:\t\t" + rerun);
         }
+        if (testImpact != null) {
+            System.out.println("Test Impact:\t" + testImpact);
+        }
         System.out.println("───────────────────────────────────────────────────\n");
     }
 
@@ -30,22 +30,39 @@ public final class CucumberHtmlReporter {
     }
 
     public void writeReport(List<Envelope> messages) {
+        if (htmlWriter == null) {
+            // the report could not be created, which has been recorded as an error
+            return;
+        }
+
         try {
             for (Envelope message : messages) {
                 htmlWriter.write(message);
             }
-
+        } catch (IOException | RuntimeException e) {
+            addError(e);
+        } finally {
             reportSize--;
 
             if (reportSize == 0) {
-                htmlWriter.close();
+                close();
             }
-        } catch (IOException e) {
-            errors.put(UUID.randomUUID().toString(), e.getMessage());
-            printExceptionStackTrace(e);
         }
     }
 
+    private void close() {
+        try {
+            htmlWriter.close();
+        } catch (IOException | RuntimeException e) {
+            addError(e);
+        }
+    }
+
+    private void addError(Exception e) {
+        errors.put(UUID.randomUUID().toString(), String.valueOf(e.getMessage()));
+        printExceptionStackTrace(e);
+    }
+
     public Map<String, String> getErrors() {
         return errors;
     }
@@ -3,8 +3,12 @@ package courgette.runtime;
 import courgette.runtime.utils.FileUtils;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -12,43 +16,62 @@ import java.util.UUID;
 import static courgette.runtime.CourgetteException.printExceptionStackTrace;
 
 final class CucumberJsonReporter {
+    private static final int SCAN_BUFFER_SIZE = 8192;
 
-    private FileWriter fileWriter;
+    private FileChannel reportChannel;
     private int reportSize;
+    private boolean hasElements;
     private final Map<String, String> errors = new HashMap<>();
 
     public CucumberJsonReporter(String fileName, int reportSize) {
         try {
             FileUtils.createFile(new File(fileName));
-            this.fileWriter = FileUtils.createFileWriter(fileName);
-            this.fileWriter.write("[");
+            this.reportChannel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
             this.reportSize = reportSize;
+            write("[");
         } catch (IOException e) {
-            errors.put(UUID.randomUUID().toString(), e.getMessage());
-            printExceptionStackTrace(e);
+            addError(e);
+            closeSilently();
         }
     }
 
+    /**
+     * Appends the elements of the report array by copying the bytes between its outer brackets from file to file,
+     * so the report is never loaded on to the heap.
+     */
     public void readAndWriteReport(String reportFile) {
-        try {
-            String report = FileUtils.readFile(reportFile, false);
-            if (report == null) {
-                throw new IOException(String.format("%s does not exist in the file system", reportFile));
+        if (reportChannel == null) {
+            // the report could not be created, which has been recorded as an error
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(reportFile), StandardOpenOption.READ)) {
+            final long start = findFirst(channel, '[');
+            final long end = findLast(channel, ']');
+
+            if (start < 0 || end < start) {
+                throw new IOException(String.format("%s is not a valid Cucumber json report", reportFile));
             }
 
-            fileWriter.write(report.substring(1, report.length() - 1));
+            final long contentStart = skipWhitespace(channel, start + 1, end);
 
-            this.reportSize--;
+            if (contentStart < end) {
+                if (hasElements) {
+                    write(",");
+                }
+                transfer(channel, contentStart, end - contentStart);
+                hasElements = true;
+            }
+        } catch (NoSuchFileException e) {
+            addError(new IOException(String.format("%s does not exist in the file system", reportFile), e));
+        } catch (IOException | RuntimeException e) {
+            addError(e);
+        } finally {
+            reportSize--;
 
-            if (reportSize > 0) {
-                fileWriter.write(",");
-            } else {
-                fileWriter.write("]");
-                fileWriter.close();
+            if (reportSize == 0) {
+                close();
             }
-        } catch (IOException e) {
-            errors.put(UUID.randomUUID().toString(), e.getMessage());
-            printExceptionStackTrace(e);
         }
     }
 
@@ -59,4 +82,95 @@ final class CucumberJsonReporter {
     public boolean hasErrors() {
         return !errors.isEmpty();
     }
+
+    private void close() {
+        try {
+            write("]");
+            reportChannel.close();
+        } catch (IOException e) {
+            addError(e);
+        }
+    }
+
+    private void closeSilently() {
+        if (reportChannel != null) {
+            try {
+                reportChannel.close();
+            } catch (IOException ignored) {
+            }
+            reportChannel = null;
+        }
+    }
+
+    private void write(String value) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(value.getBytes());
+        while (buffer.hasRemaining()) {
+            reportChannel.write(buffer);
+        }
+    }
+
+    private void transfer(FileChannel channel, long position, long count) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            transferred += channel.transferTo(position + transferred, count - transferred, reportChannel);
+        }
+    }
+
+    private long findFirst(FileChannel channel, char character) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = 0;
+
+        while (position < channel.size()) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == character) {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    private long findLast(FileChannel channel, char character) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long end = channel.size();
+
+        while (end > 0) {
+            final long position = Math.max(0, end - SCAN_BUFFER_SIZE);
+            buffer.clear();
+            buffer.limit((int) (end - position));
+            final int read = channel.read(buffer, position);
+            for (int i = read - 1; i >= 0; i--) {
+                if (buffer.get(i) == character) {
+                    return position + i;
+                }
+            }
+            end = position;
+        }
+        return -1;
+    }
+
+    private long skipWhitespace(FileChannel channel, long position, long end) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(SCAN_BUFFER_SIZE, end - position));
+            final int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (!Character.isWhitespace(buffer.get(i))) {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    private void addError(Exception e) {
+        errors.put(UUID.randomUUID().toString(), String.valueOf(e.getMessage()));
+        printExceptionStackTrace(e);
+    }
 }
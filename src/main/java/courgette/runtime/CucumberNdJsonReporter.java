@@ -3,13 +3,14 @@ package courgette.runtime;
 import courgette.runtime.utils.FileUtils;
 import io.cucumber.messages.types.Envelope;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static courgette.runtime.CourgetteException.printExceptionStackTrace;
 import static courgette.runtime.utils.JacksonUtils.CUCUMBER_OBJECT_MAPPER;
@@ -17,7 +18,7 @@ import static courgette.runtime.utils.JacksonUtils.CUCUMBER_OBJECT_MAPPER;
 final class CucumberNdJsonReporter {
     private final FileWriter fileWriter;
     private int reportSize;
-    private final Map<String, String> errors = new HashMap<>();
+    private final Map<String, String> errors = new ConcurrentHashMap<>();
 
     public CucumberNdJsonReporter(String fileName, int reportSize) {
         FileUtils.createFile(fileName);
@@ -25,21 +26,16 @@ final class CucumberNdJsonReporter {
         this.reportSize = reportSize;
     }
 
-    public Map<String, List<List<Envelope>>> readReports(Map.Entry<String, List<CourgetteReportOptions>> reports) {
-        Map<String, List<List<Envelope>>> messages = new HashMap<>();
+    public List<Iterable<Envelope>> readReports(List<CourgetteReportOptions> reports) {
+        final List<Iterable<Envelope>> messages = new ArrayList<>();
 
-        reports.getValue().stream().map(CourgetteReportOptions::getNdJsonFile).forEach(reportFile -> {
-                    try {
-                        String report = FileUtils.readFile(reportFile, false);
-                        if (report == null) {
-                            throw new IOException(String.format("%s does not exist in the file system", reportFile));
-                        }
+        reports.stream().map(CourgetteReportOptions::getNdJsonFile).forEach(reportFile -> {
+                    final File report = new File(reportFile);
 
-                        List<Envelope> reportMessages = CourgetteNdJsonCreator.createMessages(report);
-                        messages.computeIfAbsent(reports.getKey(), r -> new ArrayList<>()).add(reportMessages);
-                    } catch (Exception e) {
-                        errors.put(UUID.randomUUID().toString(), e.getMessage());
-                        printExceptionStackTrace(e);
+                    if (report.exists()) {
+                        messages.add(CourgetteNdJsonCreator.readMessages(report));
+                    } else {
+                        addError(new IOException(String.format("%s does not exist in the file system", reportFile)));
                     }
                 }
         );
@@ -53,15 +49,27 @@ final class CucumberNdJsonReporter {
                 fileWriter.write(CUCUMBER_OBJECT_MAPPER.writeValueAsString(message));
                 fileWriter.write("\n");
             }
-
+        } catch (IOException | RuntimeException e) {
+            addError(e);
+        } finally {
             reportSize--;
 
             if (reportSize == 0) {
-                fileWriter.close();
+                close();
             }
+        }
+    }
+
+    public void addError(Throwable throwable) {
+        errors.put(UUID.randomUUID().toString(), String.valueOf(throwable.getMessage()));
+        printExceptionStackTrace(throwable);
+    }
+
+    private void close() {
+        try {
+            fileWriter.close();
         } catch (IOException e) {
-            errors.put(UUID.randomUUID().toString(), e.getMessage());
-            printExceptionStackTrace(e);
+            addError(e);
         }
     }
 
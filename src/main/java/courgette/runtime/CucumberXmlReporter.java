@@ -2,38 +2,55 @@ package courgette.runtime;
 
 import courgette.integration.reportportal.ReportPortalProperties;
 import courgette.runtime.utils.FileUtils;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import static courgette.runtime.CourgetteException.printExceptionStackTrace;
-import static courgette.runtime.utils.FileUtils.writeFile;
 
 final class CucumberXmlReporter {
+    private static final QName TEST_SUITE = new QName("testsuite");
+    private static final QName TEST_CASE = new QName("testcase");
+    private static final QName NAME = new QName("name");
+    private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    private final XMLInputFactory inputFactory = createInputFactory();
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
 
     private final String reportFile;
-    private final StringBuilder xmlBuilder = new StringBuilder();
+    private File testCaseFile;
+    private FileOutputStream testCaseFileStream;
+    private OutputStream testCaseStream;
+    private XMLEventWriter testCaseWriter;
     private int reportSize;
     private int failures = 0;
     private int skipped = 0;
@@ -46,91 +63,72 @@ final class CucumberXmlReporter {
         this.reportFile = reportFile;
         this.reportSize = reportSize;
 
-        this.xmlBuilder.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
-        this.xmlBuilder.append("<testsuite failures=\"id:failures\" name=\"id:testSuite\" skipped=\"id:skipped\" tests=\"id:tests\" time=\"id:time\">\n\n");
+        try {
+            final File report = new File(reportFile);
+            FileUtils.createFile(report);
+            this.testCaseFile = Files.createTempFile(report.getAbsoluteFile().getParentFile().toPath(), "courgette-testcases", ".xml").toFile();
+            this.testCaseFileStream = new FileOutputStream(testCaseFile);
+            this.testCaseStream = new BufferedOutputStream(testCaseFileStream);
+            this.testCaseWriter = outputFactory.createXMLEventWriter(testCaseStream, StandardCharsets.UTF_8.name());
+        } catch (IOException | XMLStreamException e) {
+            addError(e);
+        }
     }
 
+    /**
+     * Streams the test cases of the report to a temporary file and adds its totals to the test suite.
+     * The merged report is written once the last report has been read, as the test suite totals are only known then.
+     */
     public void readAndWriteReport(String fileName,
                                    boolean mergeTestCaseName, boolean isReportPortalEnabled) {
 
         final HashMap<String, Integer> testcaseIteration = new HashMap<>();
 
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-
-            String report = FileUtils.readFile(fileName, false);
-            if (report == null) {
-                throw new IOException(String.format("%s does not exist in the file system", fileName));
-            }
-
-            Document document = builder.parse(new InputSource(new StringReader(report)));
-
-            if (document != null) {
-                Element node = document.getDocumentElement();
+        if (testCaseWriter != null) {
+            final Totals totals = new Totals();
+            long mark = -1;
 
-                failures = failures + Integer.parseInt(node.getAttribute("failures"));
-                skipped = skipped + Integer.parseInt(node.getAttribute("skipped"));
-                tests = tests + parseTests(node);
-                time = time + parseTime(node.getAttribute("time"));
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(fileName))) {
+                mark = flushTestCases();
 
-                NodeList testCases = document.getElementsByTagName("testcase");
+                final XMLEventReader reader = inputFactory.createXMLEventReader(inputStream);
+                try {
+                    while (reader.hasNext()) {
+                        final XMLEvent event = reader.nextEvent();
 
-                if (testCases != null) {
-                    for (int i = 0; i < testCases.getLength(); i++) {
-                        Node testcase = testCases.item(i);
-                        Node testClassName = testcase.getAttributes().getNamedItem("classname");
-                        Node testName = testcase.getAttributes().getNamedItem("name");
+                        if (event.isStartElement()) {
+                            final StartElement element = event.asStartElement();
 
-                        String key = testClassName.getNodeValue() + "-" + testName.getNodeValue();
-                        testcaseIteration.merge(key, 1, Integer::sum);
-
-                        if (testcaseIteration.get(key) > 1) {
-                            testName.setNodeValue(testName.getNodeValue() + " " + testcaseIteration.get(key));
-                        }
-
-                        if (mergeTestCaseName) {
-                            testName.setNodeValue(testClassName.getNodeValue() + ": " + testName.getNodeValue());
-                        }
-
-                        StringWriter sw = new StringWriter();
-                        try {
-                            Transformer t = TransformerFactory.newInstance().newTransformer();
-                            t.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-                            t.setOutputProperty(OutputKeys.INDENT, "yes");
-                            t.transform(new DOMSource(testcase), new StreamResult(sw));
-
-                            xmlBuilder.append(sw).append("\n");
-
-                        } catch (TransformerException te) {
-                            errors.put(UUID.randomUUID().toString(), te.getMessage());
-                            printExceptionStackTrace(te);
+                            if (element.getName().equals(TEST_SUITE)) {
+                                totals.add(element);
+                            } else if (element.getName().equals(TEST_CASE)) {
+                                writeTestCase(reader, element, testcaseIteration, mergeTestCaseName);
+                            }
                         }
                     }
+                } finally {
+                    reader.close();
                 }
+
+                failures = failures + totals.failures;
+                skipped = skipped + totals.skipped;
+                tests = tests + totals.tests;
+                time = time + totals.time;
+            } catch (FileNotFoundException e) {
+                addError(new IOException(String.format("%s does not exist in the file system", fileName), e));
+            } catch (IOException | XMLStreamException | RuntimeException e) {
+                addError(e);
+                discardTestCases(mark);
             }
-        } catch (SAXException | IOException | ParserConfigurationException e) {
-            errors.put(UUID.randomUUID().toString(), e.getMessage());
-            printExceptionStackTrace(e);
         }
 
         reportSize--;
 
         if (reportSize == 0) {
-            xmlBuilder.append("</testsuite>");
-
             if (isReportPortalEnabled) {
                 testSuite = ReportPortalProperties.getInstance().getTestSuite();
             }
-
-            final String xmlReport = xmlBuilder.toString()
-                    .replace("id:failures", String.valueOf(failures))
-                    .replace("id:skipped", String.valueOf(skipped))
-                    .replace("id:tests", String.valueOf(tests))
-                    .replace("id:time", String.valueOf(time))
-                    .replace("id:testSuite", testSuite);
-
-            writeFile(reportFile, xmlReport);
+            writeReport();
         }
     }
 
@@ -142,6 +140,157 @@ final class CucumberXmlReporter {
         return !errors.isEmpty();
     }
 
+    private long flushTestCases() throws IOException, XMLStreamException {
+        testCaseWriter.flush();
+        testCaseStream.flush();
+        return testCaseFileStream.getChannel().position();
+    }
+
+    /**
+     * Removes the test cases written from a report that could not be read completely,
+     * so that a report is either merged as a whole or not at all.
+     */
+    private void discardTestCases(long mark) {
+        if (mark < 0) {
+            return;
+        }
+        try {
+            flushTestCases();
+            testCaseFileStream.getChannel().truncate(mark);
+        } catch (IOException | XMLStreamException e) {
+            addError(e);
+        }
+    }
+
+    /**
+     * Reads the test case up to its end element before writing it, so a malformed report never leaves
+     * a partial test case in the merged report.
+     */
+    private void writeTestCase(XMLEventReader reader, StartElement testCase,
+                               Map<String, Integer> testcaseIteration, boolean mergeTestCaseName) throws XMLStreamException {
+
+        final List<XMLEvent> events = new ArrayList<>();
+        events.add(renameTestCase(testCase, testcaseIteration, mergeTestCaseName));
+
+        int depth = 1;
+        while (depth > 0) {
+            final XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+            events.add(event);
+        }
+
+        for (XMLEvent event : events) {
+            testCaseWriter.add(event);
+        }
+        testCaseWriter.add(eventFactory.createCharacters("\n\n"));
+    }
+
+    private StartElement renameTestCase(StartElement testCase, Map<String, Integer> testcaseIteration, boolean mergeTestCaseName) {
+        final String className = getAttribute(testCase, "classname");
+        String testName = getAttribute(testCase, "name");
+
+        final String key = className + "-" + testName;
+        final int iteration = testcaseIteration.merge(key, 1, Integer::sum);
+
+        if (iteration > 1) {
+            testName = testName + " " + iteration;
+        }
+
+        if (mergeTestCaseName) {
+            testName = className + ": " + testName;
+        }
+
+        final List<Attribute> attributes = new ArrayList<>();
+        final Iterator<?> iterator = testCase.getAttributes();
+        while (iterator.hasNext()) {
+            final Attribute attribute = (Attribute) iterator.next();
+            attributes.add(attribute.getName().equals(NAME) ? eventFactory.createAttribute(NAME, testName) : attribute);
+        }
+        return eventFactory.createStartElement(testCase.getName(), attributes.iterator(), testCase.getNamespaces());
+    }
+
+    private void writeReport() {
+        try {
+            closeTestCaseWriter();
+
+            if (testCaseFile == null) {
+                return;
+            }
+
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(reportFile))) {
+                outputStream.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n".getBytes(StandardCharsets.UTF_8));
+
+                final XMLStreamWriter writer = outputFactory.createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+                writer.writeStartElement(TEST_SUITE.getLocalPart());
+                writer.writeAttribute("failures", String.valueOf(failures));
+                writer.writeAttribute("name", testSuite);
+                writer.writeAttribute("skipped", String.valueOf(skipped));
+                writer.writeAttribute("tests", String.valueOf(tests));
+                writer.writeAttribute("time", String.valueOf(time));
+                writer.writeCharacters("\n\n");
+                writer.flush();
+
+                Files.copy(testCaseFile.toPath(), outputStream);
+
+                outputStream.write("</testsuite>".getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException | XMLStreamException e) {
+            addError(e);
+        } finally {
+            if (testCaseFile != null) {
+                FileUtils.deleteFileSilently(testCaseFile.getPath());
+            }
+        }
+    }
+
+    private void closeTestCaseWriter() throws IOException, XMLStreamException {
+        if (testCaseWriter != null) {
+            try {
+                testCaseWriter.close();
+            } finally {
+                testCaseStream.close();
+            }
+        }
+    }
+
+    private void addError(Exception e) {
+        errors.put(UUID.randomUUID().toString(), e.getMessage());
+        printExceptionStackTrace(e);
+    }
+
+    private static String getAttribute(StartElement element, String name) {
+        final Attribute attribute = element.getAttributeByName(new QName(name));
+        return attribute != null ? attribute.getValue() : "";
+    }
+
+    private static class Totals {
+        private int failures;
+        private int skipped;
+        private int tests;
+        private double time;
+
+        private void add(StartElement testSuite) {
+            failures = failures + Integer.parseInt(getAttribute(testSuite, "failures"));
+            skipped = skipped + Integer.parseInt(getAttribute(testSuite, "skipped"));
+            tests = tests + parseTests(getAttribute(testSuite, "tests"));
+            time = time + parseTime(getAttribute(testSuite, "time"));
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        if (factory.isPropertySupported(REPORT_CDATA)) {
+            factory.setProperty(REPORT_CDATA, true);
+        }
+        return factory;
+    }
+
     private static double parseTime(String time) {
         final NumberFormat numberFormat = NumberFormat.getInstance();
         Number timeValue;
@@ -153,8 +302,7 @@ final class CucumberXmlReporter {
         return timeValue.doubleValue();
     }
 
-    private static int parseTests(Element node) {
-        String tests = node.getAttribute("tests");
+    private static int parseTests(String tests) {
         return tests.equals("") ? 0 : Integer.parseInt(tests);
     }
 }
@@ -1,24 +1,22 @@
 package courgette.runtime.event;
 
-import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class EventPublisher {
 
     private final EventSender eventSender;
-    private final PropertyChangeSupport support;
+    private final List<EventSubscriber> subscribers = new CopyOnWriteArrayList<>();
 
     public EventPublisher(EventSender eventSender) {
         this.eventSender = eventSender;
-        this.support = new PropertyChangeSupport(this);
     }
 
-    public void addEventSubscriber(PropertyChangeListener pcl) {
-        support.addPropertyChangeListener(pcl);
+    public void addEventSubscriber(EventSubscriber subscriber) {
+        subscribers.add(subscriber);
     }
 
-    public synchronized void publishEvent(CourgetteEventHolder eventHolder) {
-        support.firePropertyChange("eventHolder", null, eventHolder);
-        support.firePropertyChange("send", null, eventSender);
+    public void publishEvent(CourgetteEventHolder eventHolder) {
+        subscribers.forEach(subscriber -> subscriber.sendEvent(eventHolder, eventSender));
     }
 }
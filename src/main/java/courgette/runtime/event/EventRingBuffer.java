@@ -0,0 +1,92 @@
+package courgette.runtime.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free ring buffer where each slot has a sequence number which tells producers and consumers
+ * whether the slot is free to write or ready to read. Any thread can offer or poll events without locking.
+ */
+public final class EventRingBuffer<E> {
+    private final AtomicReferenceArray<E> events;
+    private final AtomicLongArray sequences;
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong readPosition = new AtomicLong();
+    private final int mask;
+
+    public EventRingBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the ring buffer is full
+     */
+    public boolean offer(E event) {
+        long position = writePosition.get();
+
+        while (true) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (writePosition.compareAndSet(position, position + 1)) {
+                    events.lazySet(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = writePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = writePosition.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest event or null if the ring buffer is empty
+     */
+    public E poll() {
+        long position = readPosition.get();
+
+        while (true) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (readPosition.compareAndSet(position, position + 1)) {
+                    final E event = events.get(index);
+                    events.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return event;
+                }
+                position = readPosition.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = readPosition.get();
+            }
+        }
+    }
+
+    public int size() {
+        final long size = writePosition.get() - readPosition.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -1,22 +1,10 @@
 package courgette.runtime.event;
 
-import java.beans.PropertyChangeEvent;
-
 public abstract class EventSubscriber {
 
-    protected CourgetteEventHolder eventHolder;
-
-    protected boolean matchesEvent(CourgetteEvent courgetteEvent) {
+    protected boolean matchesEvent(CourgetteEventHolder eventHolder, CourgetteEvent courgetteEvent) {
         return eventHolder.getCourgetteEvent().equals(courgetteEvent);
     }
 
-    protected abstract void sendEvent(EventSender eventSender);
-
-    protected void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName().equals("eventHolder")) {
-            this.eventHolder = (CourgetteEventHolder) evt.getNewValue();
-        } else {
-            sendEvent((EventSender) evt.getNewValue());
-        }
-    }
+    protected abstract void sendEvent(CourgetteEventHolder eventHolder, EventSender eventSender);
 }
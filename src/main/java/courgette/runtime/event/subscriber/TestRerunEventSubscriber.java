@@ -1,23 +1,16 @@
 package courgette.runtime.event.subscriber;
 
 import courgette.runtime.event.CourgetteEvent;
+import courgette.runtime.event.CourgetteEventHolder;
 import courgette.runtime.event.EventSender;
 import courgette.runtime.event.EventSubscriber;
 
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
-
-public class TestRerunEventSubscriber extends EventSubscriber implements PropertyChangeListener {
+public class TestRerunEventSubscriber extends EventSubscriber {
 
     @Override
-    public void sendEvent(EventSender eventSender) {
-        if (matchesEvent(CourgetteEvent.TEST_RERUN)) {
+    public void sendEvent(CourgetteEventHolder eventHolder, EventSender eventSender) {
+        if (matchesEvent(eventHolder, CourgetteEvent.TEST_RERUN)) {
             eventSender.send(eventHolder);
         }
     }
-
-    @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        super.propertyChange(evt);
-    }
 }
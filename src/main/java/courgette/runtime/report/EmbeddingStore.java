@@ -0,0 +1,103 @@
+package courgette.runtime.report;
+
+import courgette.runtime.CourgetteException;
+import courgette.runtime.report.model.Embedding;
+import courgette.runtime.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores report embeddings on disk using the SHA-256 hash of their content as the file name,
+ * so each distinct attachment is written once and only read back when it is needed.
+ */
+public class EmbeddingStore {
+    private final File directory;
+    private final Set<String> storedEmbeddings = ConcurrentHashMap.newKeySet();
+
+    public EmbeddingStore(String directory) {
+        this.directory = new File(directory);
+    }
+
+    public Embedding store(String data, String mimeType) {
+        byte[] content;
+        try {
+            content = Base64.getDecoder().decode(data);
+        } catch (IllegalArgumentException e) {
+            content = data.getBytes();
+        }
+
+        final String hash = hash(content);
+
+        if (storedEmbeddings.add(hash)) {
+            try {
+                write(hash, content);
+            } catch (IOException e) {
+                storedEmbeddings.remove(hash);
+                throw new CourgetteException(e);
+            }
+        }
+        return new Embedding(hash, content.length, mimeType, this);
+    }
+
+    public File getFile(String hash) {
+        return new File(directory, hash);
+    }
+
+    public InputStream openStream(String hash) throws IOException {
+        return Files.newInputStream(getFile(hash).toPath());
+    }
+
+    public byte[] readBytes(String hash) throws IOException {
+        return Files.readAllBytes(getFile(hash).toPath());
+    }
+
+    public void delete() {
+        FileUtils.deleteDirectorySilently(directory.getPath());
+    }
+
+    private void write(String hash, byte[] content) throws IOException {
+        final File file = getFile(hash);
+
+        if (file.exists()) {
+            return;
+        }
+
+        Files.createDirectories(directory.toPath());
+
+        final Path tempFile = Files.createTempFile(directory.toPath(), hash, ".tmp");
+        try {
+            Files.write(tempFile, content);
+            try {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            final StringBuilder hash = new StringBuilder();
+            for (byte b : digest) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new CourgetteException(e);
+        }
+    }
+}
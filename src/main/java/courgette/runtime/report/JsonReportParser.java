@@ -1,10 +1,9 @@
 package courgette.runtime.report;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import courgette.runtime.CourgetteException;
 import courgette.runtime.report.model.Embedding;
 import courgette.runtime.report.model.Feature;
@@ -14,19 +13,21 @@ import courgette.runtime.report.model.Scenario;
 import courgette.runtime.report.model.Step;
 import courgette.runtime.report.model.Tag;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class JsonReportParser {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private final String jsonFile;
     private final Boolean isFeatureRunLevel;
+    private final EmbeddingStore embeddingStore;
     private final List<Feature> features = new ArrayList<>();
     private final static String START_TIMESTAMP_ATTRIBUTE = "start_timestamp";
     private final static String NAME_ATTRIBUTE = "name";
@@ -51,9 +52,10 @@ public class JsonReportParser {
     private final static String CELLS_ATTRIBUTE = "cells";
     private final static String TAGS_ATTRIBUTE = "tags";
 
-    public JsonReportParser(String jsonFile, boolean isFeatureRunLevel) {
+    public JsonReportParser(String jsonFile, boolean isFeatureRunLevel, EmbeddingStore embeddingStore) {
         this.jsonFile = jsonFile;
         this.isFeatureRunLevel = isFeatureRunLevel;
+        this.embeddingStore = embeddingStore;
     }
 
     public void createFeatures() {
@@ -64,12 +66,34 @@ public class JsonReportParser {
         return features;
     }
 
-    private void createFeatures(String jsonFile, boolean isFeatureRunLevel) {
-        try {
-            parseJsonReport(jsonFile);
-        } catch (FileNotFoundException | IllegalStateException e) {
+    /**
+     * Streams the report and hands each feature to the consumer as soon as it has been read,
+     * so only a single feature of the report is held in memory at a time.
+     */
+    public void forEachFeature(Consumer<Feature> consumer) {
+        try (JsonParser parser = MAPPER.getFactory().createParser(new File(jsonFile))) {
+            JsonToken token = parser.nextToken();
+
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return;
+            }
+
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalStateException(String.format("%s is not a valid Cucumber json report", jsonFile));
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(createFeature(MAPPER.readTree(parser)));
+            }
+        } catch (IOException | IllegalStateException e) {
             throw new CourgetteException(e);
         }
+    }
+
+    private void createFeatures(String jsonFile, boolean isFeatureRunLevel) {
+        features.clear();
+        forEachFeature(features::add);
+
         if (!isFeatureRunLevel) {
             convertToFeatureList(features);
         }
@@ -102,99 +126,81 @@ public class JsonReportParser {
         features.addAll(featureList);
     }
 
-    private void parseJsonReport(String jsonFile) throws FileNotFoundException {
-        JsonParser jsonParser = new JsonParser();
-        Object json = jsonParser.parse(new FileReader(jsonFile));
-
-        if (json instanceof JsonNull) {
-            return;
-        }
-
-        JsonArray reportJson = (JsonArray) json;
+    private Feature createFeature(JsonNode feature) {
+        String featureName = feature.get(NAME_ATTRIBUTE).asText();
+        String featureUri = feature.get(URI_ATTRIBUTE).asText();
 
-        for (JsonElement report : reportJson) {
-            final JsonObject feature = report.getAsJsonObject();
+        JsonNode elements = feature.path(ELEMENTS_ATTRIBUTE);
 
-            String featureName = feature.get(NAME_ATTRIBUTE).getAsString();
-            String featureUri = feature.get(URI_ATTRIBUTE).getAsString();
+        final List<JsonNode> backgroundSteps = new ArrayList<>();
 
-            JsonArray elements = (JsonArray) feature.get(ELEMENTS_ATTRIBUTE);
-            Iterator<JsonElement> elementsIterator = elements.iterator();
-
-            final List<JsonArray> backgroundSteps = new ArrayList<>();
-
-            while (elementsIterator.hasNext()) {
-                JsonObject element = elementsIterator.next().getAsJsonObject();
-
-                if (element.get(KEYWORD_ATTRIBUTE).getAsString().equalsIgnoreCase("Background")) {
-                    JsonArray elementSteps = (JsonArray) element.get(STEPS_ATTRIBUTE);
-                    backgroundSteps.add(elementSteps);
-                }
+        for (JsonNode element : elements) {
+            if (element.get(KEYWORD_ATTRIBUTE).asText().equalsIgnoreCase("Background")) {
+                backgroundSteps.add(element.get(STEPS_ATTRIBUTE));
             }
+        }
 
-            elementsIterator = elements.iterator();
-
-            final List<Scenario> scenarioElements = new ArrayList<>();
-
-            int index = 0;
-            while (elementsIterator.hasNext()) {
-                JsonObject scenario = elementsIterator.next().getAsJsonObject();
+        final List<Scenario> scenarioElements = new ArrayList<>();
 
-                JsonElement startTimestampElement = scenario.get(START_TIMESTAMP_ATTRIBUTE);
-                String startTimestamp = startTimestampElement != null ? startTimestampElement.getAsString() : "";
-                String scenarioName = scenario.get(NAME_ATTRIBUTE).getAsString();
-                String scenarioKeyword = scenario.get(KEYWORD_ATTRIBUTE).getAsString();
-                int scenarioLine = scenario.get(LINE_ATTRIBUTE).getAsInt();
+        int index = 0;
+        for (JsonNode scenario : elements) {
+            JsonNode startTimestampElement = scenario.get(START_TIMESTAMP_ATTRIBUTE);
+            String startTimestamp = startTimestampElement != null ? startTimestampElement.asText() : "";
+            String scenarioName = scenario.get(NAME_ATTRIBUTE).asText();
+            String scenarioKeyword = scenario.get(KEYWORD_ATTRIBUTE).asText();
+            int scenarioLine = scenario.get(LINE_ATTRIBUTE).asInt();
 
-                if (scenarioKeyword.equalsIgnoreCase("Background")) {
-                    continue;
-                }
+            if (scenarioKeyword.equalsIgnoreCase("Background")) {
+                continue;
+            }
 
-                final List<Hook> scenarioBefore = new ArrayList<>();
-                addHook(scenario.get(BEFORE_ATTRIBUTE), scenarioBefore);
+            final List<Hook> scenarioBefore = new ArrayList<>();
+            addHook(scenario.get(BEFORE_ATTRIBUTE), scenarioBefore);
 
-                final List<Hook> scenarioAfter = new ArrayList<>();
-                addHook(scenario.get(AFTER_ATTRIBUTE), scenarioAfter);
+            final List<Hook> scenarioAfter = new ArrayList<>();
+            addHook(scenario.get(AFTER_ATTRIBUTE), scenarioAfter);
 
-                List<JsonArray> allSteps = new ArrayList<>();
-                if (!backgroundSteps.isEmpty()) {
-                    allSteps.add(backgroundSteps.get(index++));
-                }
+            List<JsonNode> allSteps = new ArrayList<>();
+            if (!backgroundSteps.isEmpty()) {
+                allSteps.add(backgroundSteps.get(index++));
+            }
 
-                allSteps.addAll(Collections.singleton((JsonArray) scenario.get(STEPS_ATTRIBUTE)));
+            allSteps.add(scenario.get(STEPS_ATTRIBUTE));
 
-                final List<Step> scenarioSteps = new ArrayList<>();
-                allSteps.forEach(steps -> addSteps(steps, scenarioSteps));
+            final List<Step> scenarioSteps = new ArrayList<>();
+            allSteps.forEach(steps -> addSteps(steps, scenarioSteps));
 
-                final List<Tag> scenarioTags = new ArrayList<>();
-                addTags(scenario.get(TAGS_ATTRIBUTE), scenarioTags);
+            final List<Tag> scenarioTags = new ArrayList<>();
+            addTags(scenario.get(TAGS_ATTRIBUTE), scenarioTags);
 
-                scenarioElements.add(new Scenario(featureUri, startTimestamp, scenarioName, scenarioKeyword, scenarioLine, scenarioBefore, scenarioAfter, scenarioSteps, scenarioTags));
-            }
-            features.add(new Feature(featureName, featureUri, scenarioElements));
+            scenarioElements.add(new Scenario(featureUri, startTimestamp, scenarioName, scenarioKeyword, scenarioLine, scenarioBefore, scenarioAfter, scenarioSteps, scenarioTags));
         }
+        return new Feature(featureName, featureUri, scenarioElements);
     }
 
-    private void addTags(JsonElement tags, List<Tag> tagList) {
-        if (tags != null && tags.getAsJsonArray() != null) {
-            tags.getAsJsonArray().forEach(tag -> {
-                if (tag.getAsJsonObject() != null) {
-                    tagList.add(new Tag(tag.getAsJsonObject().get(NAME_ATTRIBUTE).getAsString()));
+    private void addTags(JsonNode tags, List<Tag> tagList) {
+        if (tags != null && tags.isArray()) {
+            tags.forEach(tag -> {
+                if (tag.isObject()) {
+                    tagList.add(new Tag(tag.get(NAME_ATTRIBUTE).asText()));
                 }
             });
         }
     }
 
-    private void addSteps(JsonArray steps, List<Step> stepList) {
-        steps.iterator().forEachRemaining(e -> {
-            JsonObject step = e.getAsJsonObject();
-            JsonObject result = step.get(RESULT_ATTRIBUTE).getAsJsonObject();
+    private void addSteps(JsonNode steps, List<Step> stepList) {
+        if (steps == null) {
+            return;
+        }
+
+        steps.forEach(step -> {
+            JsonNode result = step.get(RESULT_ATTRIBUTE);
 
-            String stepName = step.get(NAME_ATTRIBUTE).getAsString();
-            String stepKeyword = step.get(KEYWORD_ATTRIBUTE).getAsString();
-            String stepStatus = result.get(STATUS_ATTRIBUTE).getAsString();
-            long stepDuration = result.get(DURATION_ATTRIBUTE) != null ? result.get(DURATION_ATTRIBUTE).getAsLong() : 0L;
-            String stepErrorMessage = result.get(ERROR_MESSAGE_ATTRIBUTE) != null ? result.get(ERROR_MESSAGE_ATTRIBUTE).getAsString() : null;
+            String stepName = step.get(NAME_ATTRIBUTE).asText();
+            String stepKeyword = step.get(KEYWORD_ATTRIBUTE).asText();
+            String stepStatus = result.get(STATUS_ATTRIBUTE).asText();
+            long stepDuration = result.get(DURATION_ATTRIBUTE) != null ? result.get(DURATION_ATTRIBUTE).asLong() : 0L;
+            String stepErrorMessage = result.get(ERROR_MESSAGE_ATTRIBUTE) != null ? result.get(ERROR_MESSAGE_ATTRIBUTE).asText() : null;
 
             Result stepResult = new Result(stepStatus, stepDuration, stepErrorMessage);
 
@@ -217,21 +223,19 @@ public class JsonReportParser {
         });
     }
 
-    private void addHook(JsonElement source, List<Hook> hooks) {
+    private void addHook(JsonNode source, List<Hook> hooks) {
         if (source != null) {
-            for (JsonElement scenarioHook : (JsonArray) source) {
-                JsonObject hook = scenarioHook.getAsJsonObject();
-
-                JsonObject hookResult = hook.get(RESULT_ATTRIBUTE).getAsJsonObject();
-                String hookStatus = hookResult.get(STATUS_ATTRIBUTE).getAsString();
-                long hookDuration = hookResult.get(DURATION_ATTRIBUTE) != null ? hookResult.get(DURATION_ATTRIBUTE).getAsLong() : 0L;
-                String hookErrorMessage = hookResult.get(ERROR_MESSAGE_ATTRIBUTE) != null ? hookResult.get(ERROR_MESSAGE_ATTRIBUTE).getAsString() : null;
+            for (JsonNode hook : source) {
+                JsonNode hookResult = hook.get(RESULT_ATTRIBUTE);
+                String hookStatus = hookResult.get(STATUS_ATTRIBUTE).asText();
+                long hookDuration = hookResult.get(DURATION_ATTRIBUTE) != null ? hookResult.get(DURATION_ATTRIBUTE).asLong() : 0L;
+                String hookErrorMessage = hookResult.get(ERROR_MESSAGE_ATTRIBUTE) != null ? hookResult.get(ERROR_MESSAGE_ATTRIBUTE).asText() : null;
 
                 Result result = new Result(hookStatus, hookDuration, hookErrorMessage);
 
-                JsonObject match = hook.get(MATCH_ATTRIBUTE).getAsJsonObject();
+                JsonNode match = hook.get(MATCH_ATTRIBUTE);
 
-                String location = match.get(LOCATION_ATTRIBUTE).getAsString();
+                String location = match.get(LOCATION_ATTRIBUTE).asText();
                 if (!location.endsWith(")")) {
                     location = location.substring(0, location.lastIndexOf(")") + 1);
                 }
@@ -247,41 +251,39 @@ public class JsonReportParser {
         }
     }
 
-    private void addEmbeddings(JsonObject source, List<Embedding> embeddingList) {
-        JsonArray embeddings = (JsonArray) source.get(EMBEDDINGS_ATTRIBUTE);
+    private void addEmbeddings(JsonNode source, List<Embedding> embeddingList) {
+        JsonNode embeddings = source.get(EMBEDDINGS_ATTRIBUTE);
 
         if (embeddings != null) {
-            for (JsonElement embedding : embeddings) {
-                JsonObject embeddedData = embedding.getAsJsonObject();
-
-                String data = embeddedData.get(DATA_ATTRIBUTE).getAsString();
-                String mimeType = embeddedData.get(MIME_TYPE_ATTRIBUTE).getAsString();
+            for (JsonNode embeddedData : embeddings) {
+                String data = embeddedData.get(DATA_ATTRIBUTE).asText();
+                String mimeType = embeddedData.get(MIME_TYPE_ATTRIBUTE).asText();
 
-                embeddingList.add(new Embedding(data, mimeType));
+                embeddingList.add(embeddingStore.store(data, mimeType));
             }
         }
     }
 
-    private void addOutputs(JsonObject source, List<String> outputList) {
-        JsonArray output = (JsonArray) source.get(OUTPUT_ATTRIBUTE);
+    private void addOutputs(JsonNode source, List<String> outputList) {
+        JsonNode output = source.get(OUTPUT_ATTRIBUTE);
 
         if (output != null) {
-            for (JsonElement out : output) {
-                outputList.add(out.getAsString());
+            for (JsonNode out : output) {
+                outputList.add(out.asText());
             }
         }
     }
 
-    private void addStepRowData(JsonObject source, List<String> rowData) {
-        JsonArray rows = (JsonArray) source.get(ROWS_ATTRIBUTE);
+    private void addStepRowData(JsonNode source, List<String> rowData) {
+        JsonNode rows = source.get(ROWS_ATTRIBUTE);
 
         if (rows != null) {
-            rows.iterator().forEachRemaining(c -> {
-                JsonArray cellArray = c.getAsJsonObject().get(CELLS_ATTRIBUTE).getAsJsonArray();
+            rows.forEach(c -> {
+                JsonNode cellArray = c.get(CELLS_ATTRIBUTE);
 
                 StringBuilder cell = new StringBuilder();
 
-                cellArray.iterator().forEachRemaining(t -> cell.append(t.getAsString()).append(" | "));
+                cellArray.forEach(t -> cell.append(t.asText()).append(" | "));
 
                 if (cell.length() > 0) {
                     rowData.add("| " + cell.toString());
@@ -289,4 +291,4 @@ public class JsonReportParser {
             });
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,9 @@
 package courgette.runtime.report.builder;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import courgette.runtime.CourgetteEnvironmentInfo;
@@ -11,16 +15,21 @@ import courgette.runtime.report.model.Hook;
 import courgette.runtime.report.model.Result;
 import courgette.runtime.report.model.Scenario;
 import courgette.runtime.report.model.Step;
+import courgette.runtime.report.model.Tag;
 
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -79,9 +88,24 @@ public class HtmlReportBuilder {
     private static final String STEP_EMBEDDING_IMAGE_BEFORE = "step_embedding_image_before";
     private static final String STEP_EMBEDDING_IMAGE = "step_embedding_image";
     private static final String STEP_EMBEDDING_IMAGE_AFTER = "step_embedding_image_after";
+    private static final String IMAGES = "images";
     private static final String IMAGE_ID = "img_id";
+    private static final String IMAGE_SOURCE = "img_src";
+    private static final String IMAGE_DIR = "images/";
     private static final String ROW_INFO = "row_info";
     private static final String TAG = "tag";
+    private static final String SCENARIO_MODAL = "scenario_modal";
+    private static final String INDEX_ID = "id";
+    private static final String INDEX_NAME = "name";
+    private static final String INDEX_BADGE = "badge";
+    private static final String INDEX_RESULT = "result";
+    private static final String INDEX_SCENARIOS = "scenarios";
+    private static final String INDEX_TAGS = "tags";
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .enable(JsonWriteFeature.ESCAPE_NON_ASCII)
+            .build();
 
     private List<Feature> featureList;
     private List<CourgetteRunResult> courgetteRunResults;
@@ -145,6 +169,37 @@ public class HtmlReportBuilder {
         return modals;
     }
 
+    public List<String> getPaginatedHtmlModals() {
+        return Arrays.asList(createEnvironmentInfoModal(), createScenarioModalPlaceholder());
+    }
+
+    /**
+     * Writes a compact index of the features and scenarios to {@code data/index.js} and the scenario details
+     * of each feature to {@code data/features/<feature id>.js}, one feature at a time.
+     */
+    public void writeHtmlReportData(File dataDir) throws IOException {
+        final File featureDir = new File(dataDir, "features");
+
+        if (!featureDir.exists() && !featureDir.mkdirs()) {
+            throw new IOException(String.format("Unable to create the '%s' directory", featureDir));
+        }
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(dataDir, "index.js")), StandardCharsets.UTF_8)) {
+            writer.write("courgetteReport.setIndex(");
+
+            try (JsonGenerator index = JSON_FACTORY.createGenerator(writer)) {
+                index.writeStartArray();
+                for (Feature feature : featureList) {
+                    writeFeatureIndex(index, feature);
+                    writeFeatureData(featureDir, feature);
+                }
+                index.writeEndArray();
+            }
+
+            writer.write(");");
+        }
+    }
+
     public int getPassed() {
         return passed;
     }
@@ -205,6 +260,20 @@ public class HtmlReportBuilder {
 
         String scenarioId = scenario.getCourgetteScenarioId();
         String scenarioName = scenario.getName();
+        String scenarioBadge = scenario.passed() ? SUCCESS : DANGER;
+        String scenarioResult = createScenarioResult(scenario);
+
+        scenarioData.put(DATA_TARGET, featureId);
+        scenarioData.put(MODAL_TARGET, scenarioId);
+        scenarioData.put(SCENARIO_NAME, scenarioName);
+        scenarioData.put(SCENARIO_BADGE, scenarioBadge);
+        scenarioData.put(SCENARIO_RESULT, scenarioResult);
+        scenarioData.put(SCENARIO_TAGS, createScenarioTags(scenario));
+
+        return createFromTemplate(scenarioTemplate, scenarioData);
+    }
+
+    private String createScenarioResult(Scenario scenario) {
         String scenarioBadge = scenario.passed() ? SUCCESS : DANGER;
         String scenarioResult = scenarioBadge.equals(SUCCESS) ? PASSED : FAILED;
 
@@ -236,14 +305,7 @@ public class HtmlReportBuilder {
                 break;
         }
 
-        scenarioData.put(DATA_TARGET, featureId);
-        scenarioData.put(MODAL_TARGET, scenarioId);
-        scenarioData.put(SCENARIO_NAME, scenarioName);
-        scenarioData.put(SCENARIO_BADGE, scenarioBadge);
-        scenarioData.put(SCENARIO_RESULT, scenarioResult);
-        scenarioData.put(SCENARIO_TAGS, createScenarioTags(scenario));
-
-        return createFromTemplate(scenarioTemplate, scenarioData);
+        return scenarioResult;
     }
 
     private String createScenarioModal(Feature feature, Scenario scenario) {
@@ -255,17 +317,77 @@ public class HtmlReportBuilder {
         modalData.put(MODAL_HEADING, scenario.getName());
         modalData.put(MODAL_FEATURE_LINE, featureName + " - line " + scenario.getLine());
 
+        modalData.put(MODAL_BODY, createScenarioModalBody(scenario));
+
+        return createFromTemplate(modalTemplate, modalData);
+    }
+
+    private List<String> createScenarioModalBody(Scenario scenario) {
         List<String> modalBody = new ArrayList<>();
 
         scenario.getBefore().forEach(hook -> modalBody.add(createRowFromHook(hook)));
         scenario.getSteps().forEach(step -> modalBody.add(createRowFromStep(step)));
         scenario.getAfter().forEach(hook -> modalBody.add(createRowFromHook(hook)));
 
-        modalData.put(MODAL_BODY, modalBody);
+        return modalBody;
+    }
 
+    private String createScenarioModalPlaceholder() {
+        final LinkedHashMap<String, Object> modalData = new LinkedHashMap<>();
+        modalData.put(MODAL_TARGET, SCENARIO_MODAL);
         return createFromTemplate(modalTemplate, modalData);
     }
 
+    private void writeFeatureIndex(JsonGenerator index, Feature feature) throws IOException {
+        index.writeStartObject();
+        index.writeStringField(INDEX_ID, feature.getCourgetteFeatureId());
+        index.writeStringField(INDEX_NAME, feature.getName());
+        index.writeStringField(INDEX_BADGE, feature.passed() ? SUCCESS : DANGER);
+        index.writeStringField(INDEX_RESULT, feature.passed() ? PASSED : FAILED);
+        index.writeArrayFieldStart(INDEX_SCENARIOS);
+
+        for (Scenario scenario : feature.getScenarios()) {
+            if (!scenario.getKeyword().equalsIgnoreCase("Background")) {
+                index.writeStartObject();
+                index.writeStringField(INDEX_ID, scenario.getCourgetteScenarioId());
+                index.writeStringField(INDEX_NAME, scenario.getName());
+                index.writeStringField(INDEX_BADGE, scenario.passed() ? SUCCESS : DANGER);
+                index.writeStringField(INDEX_RESULT, createScenarioResult(scenario));
+                index.writeArrayFieldStart(INDEX_TAGS);
+                for (Tag tag : scenario.getTags()) {
+                    index.writeString(tag.getName());
+                }
+                index.writeEndArray();
+                index.writeEndObject();
+            }
+        }
+
+        index.writeEndArray();
+        index.writeEndObject();
+    }
+
+    private void writeFeatureData(File featureDir, Feature feature) throws IOException {
+        final String featureName = feature.getUri().substring(feature.getUri().lastIndexOf("/") + 1);
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(featureDir, feature.getCourgetteFeatureId() + ".js")), StandardCharsets.UTF_8)) {
+            writer.write("courgetteReport.addFeature(\"" + feature.getCourgetteFeatureId() + "\", ");
+
+            try (JsonGenerator data = JSON_FACTORY.createGenerator(writer)) {
+                data.writeStartObject();
+                for (Scenario scenario : feature.getScenarios()) {
+                    data.writeObjectFieldStart(scenario.getCourgetteScenarioId());
+                    data.writeStringField(MODAL_HEADING, scenario.getName());
+                    data.writeStringField(MODAL_FEATURE_LINE, featureName + " - line " + scenario.getLine());
+                    data.writeStringField(MODAL_BODY, String.join("", createScenarioModalBody(scenario)));
+                    data.writeEndObject();
+                }
+                data.writeEndObject();
+            }
+
+            writer.write(");");
+        }
+    }
+
     private String createRowFromHook(Hook hook) {
 
         final LinkedHashMap<String, Object> hookData = new LinkedHashMap<>();
@@ -388,26 +510,33 @@ public class HtmlReportBuilder {
     }
 
     private void addStepImageEmbedding(HashMap<String, Object> source, Step step) {
-        List<String> beforeStep = step.getBefore().stream()
+        List<Map<String, String>> beforeStep = step.getBefore().stream()
                 .flatMap(e -> e.getEmbeddings().stream())
                 .filter(imageFilter)
-                .map(Embedding::getCourgetteEmbeddingId)
+                .map(this::createImage)
                 .collect(Collectors.toList());
 
-        List<String> currentStep = step.getEmbeddings().stream()
+        List<Map<String, String>> currentStep = step.getEmbeddings().stream()
                 .filter(imageFilter)
-                .map(Embedding::getCourgetteEmbeddingId)
+                .map(this::createImage)
                 .collect(Collectors.toList());
 
-        List<String> afterStep = step.getAfter().stream()
+        List<Map<String, String>> afterStep = step.getAfter().stream()
                 .flatMap(e -> e.getEmbeddings().stream())
                 .filter(imageFilter)
-                .map(Embedding::getCourgetteEmbeddingId)
+                .map(this::createImage)
                 .collect(Collectors.toList());
 
-        addNonEmptyNestedMap(source, STEP_EMBEDDING_IMAGE_BEFORE, IMAGE_ID, beforeStep);
-        addNonEmptyNestedMap(source, STEP_EMBEDDING_IMAGE, IMAGE_ID, currentStep);
-        addNonEmptyNestedMap(source, STEP_EMBEDDING_IMAGE_AFTER, IMAGE_ID, afterStep);
+        addNonEmptyNestedMap(source, STEP_EMBEDDING_IMAGE_BEFORE, IMAGES, beforeStep);
+        addNonEmptyNestedMap(source, STEP_EMBEDDING_IMAGE, IMAGES, currentStep);
+        addNonEmptyNestedMap(source, STEP_EMBEDDING_IMAGE_AFTER, IMAGES, afterStep);
+    }
+
+    private Map<String, String> createImage(Embedding embedding) {
+        final Map<String, String> image = new HashMap<>();
+        image.put(IMAGE_ID, embedding.getCourgetteEmbeddingId());
+        image.put(IMAGE_SOURCE, courgetteProperties.isHtmlReportImageEmbedded() ? "" : IMAGE_DIR + embedding.getFileName());
+        return image;
     }
 
     private void addStepTextEmbedding(HashMap<String, Object> source, Step step) {
@@ -439,11 +568,11 @@ public class HtmlReportBuilder {
         if (mimeType.startsWith("text")) {
             addNestedMap(hookData, STEP_EMBEDDING_TEXT, TEXT, decodeTextEmbedding(embedding));
         } else if (mimeType.startsWith("image")) {
-            addNestedMap(hookData, STEP_EMBEDDING_IMAGE, IMAGE_ID, embedding.getCourgetteEmbeddingId());
+            addNestedMap(hookData, STEP_EMBEDDING_IMAGE, IMAGES, createImage(embedding));
         }
     }
 
-    private void addNonEmptyNestedMap(HashMap<String, Object> source, String sourceKey, String childKey, List<String> data) {
+    private void addNonEmptyNestedMap(HashMap<String, Object> source, String sourceKey, String childKey, List<?> data) {
         if (!data.isEmpty()) {
             addNestedMap(source, sourceKey, childKey, data);
         }
@@ -474,9 +603,9 @@ public class HtmlReportBuilder {
 
     private static String decodeTextEmbedding(Embedding embedding) {
         if (embedding.getMimeType().equals("text/xml")) {
-            return formatXml(new String(Base64.getDecoder().decode(String.valueOf(embedding.getData()))));
+            return formatXml(new String(embedding.getBytes()));
         } else {
-            return new String(Base64.getDecoder().decode(String.valueOf(embedding.getData())));
+            return new String(embedding.getBytes());
         }
     }
 
@@ -1,27 +1,69 @@
 package courgette.runtime.report.model;
 
+import courgette.runtime.CourgetteException;
+import courgette.runtime.report.EmbeddingStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
 import java.util.UUID;
 
 public class Embedding {
     private String courgetteEmbeddingId;
-    private String data;
+    private String hash;
+    private long size;
     private String mimeType;
+    private EmbeddingStore embeddingStore;
 
-    public Embedding(String data, String mimeType) {
+    public Embedding(String hash, long size, String mimeType, EmbeddingStore embeddingStore) {
         this.courgetteEmbeddingId = UUID.randomUUID().toString();
-        this.data = data;
+        this.hash = hash;
+        this.size = size;
         this.mimeType = mimeType;
+        this.embeddingStore = embeddingStore;
     }
 
     public String getCourgetteEmbeddingId() {
         return courgetteEmbeddingId;
     }
 
-    public String getData() {
-        return data;
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
     }
 
     public String getMimeType() {
         return mimeType;
     }
+
+    public String getFileName() {
+        String extension = mimeType.contains("/") ? mimeType.substring(mimeType.indexOf("/") + 1) : "bin";
+
+        if (extension.contains("+")) {
+            extension = extension.substring(0, extension.indexOf("+"));
+        }
+        if (extension.equals("jpeg")) {
+            extension = "jpg";
+        }
+        return hash + "." + extension.replaceAll("[^A-Za-z0-9.-]", "");
+    }
+
+    public InputStream openStream() throws IOException {
+        return embeddingStore.openStream(hash);
+    }
+
+    public byte[] getBytes() {
+        try {
+            return embeddingStore.readBytes(hash);
+        } catch (IOException e) {
+            throw new CourgetteException(e);
+        }
+    }
+
+    public String getData() {
+        return Base64.getEncoder().encodeToString(getBytes());
+    }
 }
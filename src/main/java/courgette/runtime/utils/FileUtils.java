@@ -200,6 +200,10 @@ public final class FileUtils {
         }
     }
 
+    public static File nullDevice() {
+        return new File(System.getProperty("os.name").toLowerCase().startsWith("windows") ? "NUL" : "/dev/null");
+    }
+
     public static String tempDirectory() {
         final String fileSeparator = File.separator;
         final String tmpDir = System.getProperty("java.io.tmpdir");
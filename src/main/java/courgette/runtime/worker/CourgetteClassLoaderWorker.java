@@ -0,0 +1,70 @@
+package courgette.runtime.worker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+class CourgetteClassLoaderWorker implements CourgetteWorker {
+    private final URLClassLoader classLoader;
+    private final Method launcher;
+    private final CourgetteWorkerOutput workerOutput;
+    private int runCount;
+    private boolean alive = true;
+
+    CourgetteClassLoaderWorker(List<URL> classPath, CourgetteWorkerOutput workerOutput) throws IOException {
+        this.classLoader = new URLClassLoader(classPath.toArray(new URL[0]), ClassLoader.getSystemClassLoader().getParent());
+        this.workerOutput = workerOutput;
+        try {
+            this.launcher = Class.forName(CourgetteInProcessLauncher.class.getName(), true, classLoader).getMethod("run", String[].class);
+        } catch (ReflectiveOperationException e) {
+            classLoader.close();
+            throw new IOException("Unable to load " + CourgetteInProcessLauncher.class.getName() + " from the test class path", e);
+        }
+    }
+
+    @Override
+    public CourgetteWorkerResponse execute(CourgetteWorkerRequest request) throws IOException {
+        runCount++;
+
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextClassLoader = thread.getContextClassLoader();
+
+        try (OutputStream testOutput = CourgetteWorkerOutput.createTestOutput(request)) {
+            workerOutput.redirect(testOutput);
+            thread.setContextClassLoader(classLoader);
+            final Object exitStatus = launcher.invoke(null, (Object) request.getArgs().toArray(new String[0]));
+            return new CourgetteWorkerResponse((Byte) exitStatus, null);
+        } catch (InvocationTargetException e) {
+            e.getCause().printStackTrace();
+            return new CourgetteWorkerResponse(-1, e.getCause().getMessage());
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+            workerOutput.reset();
+        }
+    }
+
+    @Override
+    public int getRunCount() {
+        return runCount;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return alive;
+    }
+
+    @Override
+    public void stop() {
+        alive = false;
+        try {
+            classLoader.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package courgette.runtime.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Authenticator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import com.sun.net.httpserver.HttpServer;
+import courgette.runtime.CourgetteException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static courgette.runtime.CourgetteException.printError;
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
+
+/**
+ * Queues the runs of the test run for remote workers, which pull a run over HTTP and send back its exit code and report files.
+ * <p>
+ * A worker asks for a run with {@code POST /work}, which waits up to {@value #POLL_TIMEOUT_SECONDS} seconds for a run and answers with
+ * 200 and the run, 204 when there is no run or 410 when the test run has finished. While the run is in progress the worker sends
+ * {@code POST /heartbeat/<id>}, and a run is queued again when its worker stops sending heartbeats. The worker finishes the run with
+ * {@code POST /result/<id>}. Only the report files requested by the run are written.
+ * <p>
+ * Each hand-out of a run has its own id, so the heartbeats and the result of a worker whose run was given to another worker are rejected
+ * with 410. When a token is set, each request must send it as a bearer token in the {@code Authorization} header or it is rejected with 401.
+ * The coordinator binds to the loopback address unless a host is set, and a token is required to bind to any other address.
+ */
+class CourgetteCoordinator {
+    static final String WORK_PATH = "/work";
+    static final String HEARTBEAT_PATH = "/heartbeat/";
+    static final String RESULT_PATH = "/result/";
+    static final long POLL_TIMEOUT_SECONDS = 20;
+    static final long HEARTBEAT_SECONDS = 10;
+    static final String AUTHORIZATION_HEADER = "Authorization";
+    static final String BEARER = "Bearer ";
+    private static final long LEASE_TIMEOUT_SECONDS = 60;
+    private static final long WORKER_TIMEOUT_MINUTES = 10;
+    private static final long STOP_TIMEOUT_SECONDS = 5;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LinkedBlockingDeque<Task> pendingTasks = new LinkedBlockingDeque<>();
+    private final Map<String, Task> leasedTasks = new ConcurrentHashMap<>();
+    private final Set<String> workers = ConcurrentHashMap.newKeySet();
+    private final HttpServer server;
+    private final ExecutorService serverExecutor;
+    private final ScheduledExecutorService leaseChecker;
+    private volatile long lastWorkerContact = System.currentTimeMillis();
+    private volatile boolean stopped;
+
+    /**
+     * @param host  the address to bind to, or an empty string to bind to the loopback address
+     * @param port  the port to bind to, or 0 to use a free port
+     * @param token the token the workers must send, or an empty string to accept any worker which can reach a loopback address
+     */
+    CourgetteCoordinator(String host, int port, String token) throws IOException {
+        final InetSocketAddress address = host.trim().isEmpty() ?
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port) : new InetSocketAddress(host.trim(), port);
+
+        if (address.isUnresolved()) {
+            throw new IOException("Courgette Coordinator: Unable to resolve the coordinator host " + host.trim());
+        }
+        if (!address.getAddress().isLoopbackAddress() && token.isEmpty()) {
+            throw new CourgetteException(String.format("Courgette Coordinator: coordinatorToken must be set to bind the coordinator to %s, " +
+                    "so only your workers can fetch runs and send results", address.getHostString()));
+        }
+
+        server = HttpServer.create(address, 0);
+
+        final Authenticator authenticator = token.isEmpty() ? null : new TokenAuthenticator(token);
+
+        server.createContext(WORK_PATH, this::handleWork).setAuthenticator(authenticator);
+        server.createContext(HEARTBEAT_PATH, this::handleHeartbeat).setAuthenticator(authenticator);
+        server.createContext(RESULT_PATH, this::handleResult).setAuthenticator(authenticator);
+
+        serverExecutor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "courgette-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        leaseChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "courgette-coordinator-leases");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leaseChecker.scheduleWithFixedDelay(this::requeueExpiredTasks, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+
+        System.out.printf("Courgette Coordinator: waiting for workers at http://%s:%d%n",
+                address.getAddress().isAnyLocalAddress() ? InetAddress.getLocalHost().getHostName() : address.getHostString(), getPort());
+    }
+
+    /**
+     * Queues the run and waits for a worker to finish it.
+     */
+    CourgetteWorkerResponse execute(CourgetteWorkerRequest request) throws IOException, InterruptedException {
+        final Task task = new Task(request);
+        pendingTasks.add(task);
+
+        try {
+            while (true) {
+                try {
+                    return task.result.get(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    if (System.currentTimeMillis() - lastWorkerContact > TimeUnit.MINUTES.toMillis(WORKER_TIMEOUT_MINUTES)) {
+                        throw new IOException(String.format("Courgette Coordinator: No worker has connected in the last %d minutes", WORKER_TIMEOUT_MINUTES));
+                    }
+                } catch (ExecutionException e) {
+                    throw new IOException(e.getCause());
+                }
+            }
+        } finally {
+            pendingTasks.remove(task);
+            if (task.leaseId != null) {
+                leasedTasks.remove(task.leaseId, task);
+            }
+        }
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Tells the workers that the test run has finished and stops the server once the known workers have been told or after a short wait.
+     */
+    void stop() {
+        stopped = true;
+        leaseChecker.shutdownNow();
+
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(STOP_TIMEOUT_SECONDS);
+        try {
+            while (!workers.isEmpty() && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        server.stop(1);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleWork(HttpExchange exchange) throws IOException {
+        lastWorkerContact = System.currentTimeMillis();
+        final String worker = exchange.getRemoteAddress().getHostString() + getQuery(exchange).replace("worker=", " ");
+        workers.add(worker);
+
+        final Task task = pollTask();
+
+        if (task == null) {
+            if (stopped) {
+                workers.remove(worker);
+                send(exchange, 410, null);
+            } else {
+                send(exchange, 204, null);
+            }
+            return;
+        }
+
+        final String leaseId = UUID.randomUUID().toString();
+
+        task.worker = worker;
+        task.lastHeartbeat = System.currentTimeMillis();
+        task.leaseId = leaseId;
+        leasedTasks.put(leaseId, task);
+
+        try {
+            send(exchange, 200, mapper.writeValueAsBytes(new CourgetteRemoteTask(leaseId, task.request)));
+        } catch (IOException e) {
+            if (leasedTasks.remove(leaseId) != null) {
+                pendingTasks.addFirst(task);
+            }
+            throw e;
+        }
+    }
+
+    private void handleHeartbeat(HttpExchange exchange) throws IOException {
+        lastWorkerContact = System.currentTimeMillis();
+        final Task task = leasedTasks.get(getTaskId(exchange, HEARTBEAT_PATH));
+
+        if (task != null) {
+            task.lastHeartbeat = System.currentTimeMillis();
+        }
+        send(exchange, task != null ? 200 : 410, null);
+    }
+
+    private void handleResult(HttpExchange exchange) throws IOException {
+        lastWorkerContact = System.currentTimeMillis();
+        final CourgetteWorkerResponse response = mapper.readValue(readBody(exchange.getRequestBody()), CourgetteWorkerResponse.class);
+
+        final Task task = leasedTasks.remove(getTaskId(exchange, RESULT_PATH));
+
+        if (task == null || task.result.isDone()) {
+            printError(String.format("Courgette Coordinator: Ignored a result from %s as its run was given to another worker",
+                    exchange.getRemoteAddress().getHostString()));
+            send(exchange, 410, null);
+            return;
+        }
+
+        response.getOutputFiles().forEach((path, content) -> {
+            if (task.request.getOutputFiles().contains(path)) {
+                writeFile(path, content);
+            } else {
+                printError(String.format("Courgette Coordinator: Ignored %s from worker %s as it was not requested", path, task.worker));
+            }
+        });
+        task.result.complete(response);
+        send(exchange, 200, null);
+    }
+
+    private Task pollTask() {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(POLL_TIMEOUT_SECONDS);
+
+        try {
+            while (!stopped && System.currentTimeMillis() < deadline) {
+                final Task task = pendingTasks.poll(1, TimeUnit.SECONDS);
+                if (task != null) {
+                    return task;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private void requeueExpiredTasks() {
+        final long expired = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(LEASE_TIMEOUT_SECONDS);
+
+        leasedTasks.values().stream()
+                .filter(task -> task.lastHeartbeat < expired)
+                .forEach(task -> {
+                    if (leasedTasks.remove(task.leaseId, task) && !task.result.isDone()) {
+                        printError(String.format("Courgette Coordinator: Worker %s stopped responding, its run will be given to another worker", task.worker));
+                        pendingTasks.addFirst(task);
+                    }
+                });
+    }
+
+    private void writeFile(String path, byte[] content) {
+        try {
+            final File file = new File(path);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            Files.write(file.toPath(), content);
+        } catch (IOException e) {
+            printExceptionStackTrace(e);
+        }
+    }
+
+    private String getTaskId(HttpExchange exchange, String path) {
+        return exchange.getRequestURI().getPath().substring(path.length());
+    }
+
+    private String getQuery(HttpExchange exchange) {
+        final String query = exchange.getRequestURI().getQuery();
+        return query != null ? query : "";
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        try {
+            readBody(exchange.getRequestBody());
+            exchange.sendResponseHeaders(status, body != null ? body.length : -1);
+            if (body != null) {
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] readBody(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+        return body.toByteArray();
+    }
+
+    private static class Task {
+        private final CourgetteWorkerRequest request;
+        private final CompletableFuture<CourgetteWorkerResponse> result = new CompletableFuture<>();
+        private volatile String leaseId;
+        private volatile String worker;
+        private volatile long lastHeartbeat;
+
+        Task(CourgetteWorkerRequest request) {
+            this.request = request;
+        }
+    }
+
+    private static class TokenAuthenticator extends Authenticator {
+        private final byte[] expectedHeader;
+
+        TokenAuthenticator(String token) {
+            this.expectedHeader = (BEARER + token).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Result authenticate(HttpExchange exchange) {
+            final String header = exchange.getRequestHeaders().getFirst(AUTHORIZATION_HEADER);
+
+            if (header != null && MessageDigest.isEqual(expectedHeader, header.getBytes(StandardCharsets.UTF_8))) {
+                return new Success(new HttpPrincipal("worker", "courgette"));
+            }
+            return new Failure(401);
+        }
+    }
+}
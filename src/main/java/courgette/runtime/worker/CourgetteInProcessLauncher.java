@@ -0,0 +1,50 @@
+package courgette.runtime.worker;
+
+import io.cucumber.core.options.CommandlineOptionsParser;
+import io.cucumber.core.options.CucumberProperties;
+import io.cucumber.core.options.CucumberPropertiesParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.runtime.Runtime;
+
+import java.util.Optional;
+
+/**
+ * Runs Cucumber inside the class loader that loaded this class.
+ * <p>
+ * Cucumber system properties and environment variables are not read because Courgette has already applied them to the
+ * runner arguments, which matches the way each subprocess is started.
+ */
+public final class CourgetteInProcessLauncher {
+
+    public static byte run(String[] args) {
+        final ClassLoader classLoader = CourgetteInProcessLauncher.class.getClassLoader();
+
+        final RuntimeOptions propertiesFileOptions = new CucumberPropertiesParser()
+                .parse(CucumberProperties.fromPropertiesFile())
+                .build();
+
+        final CommandlineOptionsParser commandlineOptionsParser = new CommandlineOptionsParser(System.out);
+
+        final RuntimeOptions runtimeOptions = commandlineOptionsParser
+                .parse(args)
+                .addDefaultGlueIfAbsent()
+                .addDefaultFeaturePathIfAbsent()
+                .addDefaultSummaryPrinterIfNotDisabled()
+                .setPublish(false)
+                .setPublishQuiet(true)
+                .build(propertiesFileOptions);
+
+        final Optional<Byte> exitStatus = commandlineOptionsParser.exitStatus();
+        if (exitStatus.isPresent()) {
+            return exitStatus.get();
+        }
+
+        final Runtime runtime = Runtime.builder()
+                .withRuntimeOptions(runtimeOptions)
+                .withClassLoader(() -> classLoader)
+                .build();
+
+        runtime.run();
+        return runtime.exitStatus();
+    }
+}
@@ -0,0 +1,22 @@
+package courgette.runtime.worker;
+
+public class CourgetteRemoteTask {
+    private String id;
+    private CourgetteWorkerRequest request;
+
+    public CourgetteRemoteTask() {
+    }
+
+    public CourgetteRemoteTask(String id, CourgetteWorkerRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public CourgetteWorkerRequest getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,308 @@
+package courgette.runtime.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import courgette.runtime.utils.FileUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.EntityBuilder;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static courgette.runtime.CourgetteException.printError;
+import static courgette.runtime.CourgetteException.printExceptionStackTrace;
+
+/**
+ * Runs the test runs of a {@link courgette.api.CourgetteExecutionMode#DISTRIBUTED} test run on another machine or container.
+ * The worker pulls runs from the coordinator until the test run has finished, so several workers can be started on each machine.
+ * <p>
+ * Usage: {@code java -cp <test classpath> courgette.runtime.worker.CourgetteRemoteWorkerMain http://<coordinator host>:<port>}
+ * <p>
+ * When the coordinator requires a token, it is read from the {@value #COORDINATOR_TOKEN_ENV} environment variable
+ * or the {@value #COORDINATOR_TOKEN} system property.
+ */
+public class CourgetteRemoteWorkerMain {
+    public static final String COORDINATOR_URL = "courgette.coordinator.url";
+    public static final String COORDINATOR_TOKEN = "courgette.coordinator.token";
+    public static final String COORDINATOR_TOKEN_ENV = "COURGETTE_COORDINATOR_TOKEN";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NO_CONTENT = 204;
+    private static final int HTTP_UNAUTHORIZED = 401;
+    private static final int HTTP_GONE = 410;
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_SECONDS = 5;
+    private static final long CONNECT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private final String coordinatorUrl;
+    private final String workerName;
+    private final CloseableHttpClient httpClient;
+    private final ScheduledExecutorService heartbeat;
+
+    private CourgetteRemoteWorkerMain(String coordinatorUrl, String token) throws IOException {
+        this.coordinatorUrl = coordinatorUrl.endsWith("/") ? coordinatorUrl.substring(0, coordinatorUrl.length() - 1) : coordinatorUrl;
+        this.workerName = URLEncoder.encode(ManagementFactory.getRuntimeMXBean().getName(), "UTF-8");
+
+        final HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(10))
+                        .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(CourgetteCoordinator.POLL_TIMEOUT_SECONDS * 3))
+                        .build());
+
+        if (token != null && !token.trim().isEmpty()) {
+            httpClientBuilder.setDefaultHeaders(Collections.singletonList(
+                    new BasicHeader(CourgetteCoordinator.AUTHORIZATION_HEADER, CourgetteCoordinator.BEARER + token.trim())));
+        }
+        this.httpClient = httpClientBuilder.build();
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "courgette-worker-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        final String coordinatorUrl = args.length > 0 ? args[0] : System.getProperty(COORDINATOR_URL);
+
+        if (coordinatorUrl == null || coordinatorUrl.trim().isEmpty()) {
+            printError(String.format("Courgette Worker: The coordinator url must be passed as the first argument or with -D%s", COORDINATOR_URL));
+            System.exit(1);
+        }
+
+        System.setProperty("cucumber.publish.enabled", "false");
+        System.setProperty("cucumber.publish.quiet", "true");
+
+        final String token = System.getenv(COORDINATOR_TOKEN_ENV) != null ? System.getenv(COORDINATOR_TOKEN_ENV) : System.getProperty(COORDINATOR_TOKEN);
+
+        final boolean finished = new CourgetteRemoteWorkerMain(coordinatorUrl.trim(), token).run();
+        System.exit(finished ? 0 : 1);
+    }
+
+    /**
+     * @return true when the worker stopped because the test run has finished
+     */
+    private boolean run() throws IOException {
+        System.out.printf("Courgette Worker: waiting for work from %s%n", coordinatorUrl);
+
+        long lastContact = System.currentTimeMillis();
+
+        while (true) {
+            final CourgetteRemoteTask task;
+
+            try (CloseableHttpResponse response = httpClient.execute(new HttpPost(coordinatorUrl + CourgetteCoordinator.WORK_PATH + "?worker=" + workerName))) {
+                final int statusCode = response.getStatusLine().getStatusCode();
+                lastContact = System.currentTimeMillis();
+
+                if (statusCode == HTTP_GONE) {
+                    System.out.println("Courgette Worker: the test run has finished");
+                    return true;
+                }
+                if (statusCode == HTTP_UNAUTHORIZED) {
+                    printError(String.format("Courgette Worker: the coordinator did not accept the token, set it with the %s environment variable or -D%s",
+                            COORDINATOR_TOKEN_ENV, COORDINATOR_TOKEN));
+                    return false;
+                }
+                if (statusCode != HTTP_OK) {
+                    EntityUtils.consume(response.getEntity());
+                    if (statusCode != HTTP_NO_CONTENT) {
+                        printError("Courgette Worker: unexpected response from the coordinator -> " + statusCode);
+                        sleep();
+                    }
+                    continue;
+                }
+                task = MAPPER.readValue(EntityUtils.toByteArray(response.getEntity()), CourgetteRemoteTask.class);
+            } catch (IOException e) {
+                if (System.currentTimeMillis() - lastContact > CONNECT_TIMEOUT_MILLIS) {
+                    printError("Courgette Worker: unable to reach the coordinator -> " + e.getMessage());
+                    return false;
+                }
+                sleep();
+                continue;
+            }
+
+            sendResult(task.getId(), execute(task));
+        }
+    }
+
+    /**
+     * Runs the task in a directory of its own. The input and output files of the task are written under this directory rather than at the
+     * paths chosen by the coordinator, and the directory is deleted after the run so a long-lived worker does not fill its disk.
+     */
+    private CourgetteWorkerResponse execute(CourgetteRemoteTask task) {
+        final File taskDirectory;
+        try {
+            taskDirectory = Files.createTempDirectory("courgette-worker-").toFile();
+        } catch (IOException e) {
+            printExceptionStackTrace(e);
+            return new CourgetteWorkerResponse(-1, e.getMessage());
+        }
+
+        try {
+            return executeAndReadOutputFiles(task, new TaskFiles(taskDirectory, task.getRequest()));
+        } finally {
+            FileUtils.deleteDirectorySilently(taskDirectory.getPath());
+        }
+    }
+
+    private CourgetteWorkerResponse executeAndReadOutputFiles(CourgetteRemoteTask task, TaskFiles taskFiles) {
+        final CourgetteWorkerRequest request = task.getRequest();
+
+        try {
+            for (Map.Entry<String, byte[]> inputFile : request.getInputFiles().entrySet()) {
+                taskFiles.writeInputFile(inputFile.getKey(), inputFile.getValue());
+            }
+        } catch (IOException e) {
+            printExceptionStackTrace(e);
+            return new CourgetteWorkerResponse(-1, e.getMessage());
+        }
+
+        final ScheduledFuture<?> heartbeats = heartbeat.scheduleWithFixedDelay(() -> sendHeartbeat(task.getId()),
+                CourgetteCoordinator.HEARTBEAT_SECONDS, CourgetteCoordinator.HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+
+        final CourgetteWorkerResponse response;
+        try {
+            response = CourgetteWorkerMain.execute(taskFiles.createLocalRequest());
+        } finally {
+            heartbeats.cancel(false);
+        }
+
+        for (String outputFile : request.getOutputFiles()) {
+            final File file = taskFiles.getLocalFile(outputFile);
+            if (file.isFile()) {
+                try {
+                    response.getOutputFiles().put(outputFile, Files.readAllBytes(file.toPath()));
+                } catch (IOException e) {
+                    printExceptionStackTrace(e);
+                }
+            }
+        }
+        return response;
+    }
+
+    private void sendHeartbeat(String taskId) {
+        try (CloseableHttpResponse response = httpClient.execute(new HttpPost(coordinatorUrl + CourgetteCoordinator.HEARTBEAT_PATH + taskId))) {
+            EntityUtils.consume(response.getEntity());
+        } catch (IOException e) {
+            printError("Courgette Worker: unable to send heartbeat -> " + e.getMessage());
+        }
+    }
+
+    private void sendResult(String taskId, CourgetteWorkerResponse result) throws IOException {
+        final byte[] body = MAPPER.writeValueAsBytes(result);
+
+        for (int attempt = 1; ; attempt++) {
+            final HttpPost post = new HttpPost(coordinatorUrl + CourgetteCoordinator.RESULT_PATH + taskId);
+            post.setEntity(EntityBuilder.create().setContentType(ContentType.APPLICATION_JSON).setBinary(body).build());
+
+            try (CloseableHttpResponse response = httpClient.execute(post)) {
+                EntityUtils.consume(response.getEntity());
+                return;
+            } catch (IOException e) {
+                if (attempt == MAX_RETRIES) {
+                    printError("Courgette Worker: unable to send the result to the coordinator -> " + e.getMessage());
+                    return;
+                }
+                sleep();
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            TimeUnit.SECONDS.sleep(RETRY_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Maps each file of a task to a file in the task directory and replaces the paths in the arguments and input files of the task,
+     * where a path is either the whole value or follows a plugin name, as in {@code json:<path>}.
+     */
+    private static class TaskFiles {
+        private final Map<String, File> localFiles = new HashMap<>();
+        private final CourgetteWorkerRequest request;
+
+        TaskFiles(File taskDirectory, CourgetteWorkerRequest request) {
+            this.request = request;
+
+            final Set<String> paths = new LinkedHashSet<>(request.getInputFiles().keySet());
+            paths.addAll(request.getOutputFiles());
+            if (request.getOutputFile() != null) {
+                paths.add(request.getOutputFile());
+            }
+
+            int index = 0;
+            for (String path : paths) {
+                localFiles.put(path, new File(taskDirectory, (index++) + "-" + new File(path).getName()));
+            }
+        }
+
+        File getLocalFile(String path) {
+            return localFiles.get(path);
+        }
+
+        CourgetteWorkerRequest createLocalRequest() {
+            final List<String> args = request.getArgs().stream().map(this::localise).collect(Collectors.toList());
+            final String outputFile = request.getOutputFile() != null ? localise(request.getOutputFile()) : null;
+            return new CourgetteWorkerRequest(args, outputFile, request.isDiscardOutput());
+        }
+
+        /**
+         * Writes an input file to the task directory. The paths in a properties file, such as a scenario batch file, are replaced as well.
+         */
+        void writeInputFile(String path, byte[] content) throws IOException {
+            final File file = getLocalFile(path);
+
+            if (!path.endsWith(".properties")) {
+                Files.write(file.toPath(), content);
+                return;
+            }
+
+            final Properties properties = new Properties();
+            properties.load(new ByteArrayInputStream(content));
+            properties.stringPropertyNames().forEach(key -> properties.setProperty(key, localise(properties.getProperty(key))));
+
+            try (OutputStream outputStream = new FileOutputStream(file)) {
+                properties.store(outputStream, null);
+            }
+        }
+
+        private String localise(String value) {
+            if (localFiles.containsKey(value)) {
+                return localFiles.get(value).getPath();
+            }
+            for (Map.Entry<String, File> localFile : localFiles.entrySet()) {
+                if (value.endsWith(":" + localFile.getKey())) {
+                    return value.substring(0, value.length() - localFile.getKey().length()) + localFile.getValue().getPath();
+                }
+            }
+            return value;
+        }
+    }
+}
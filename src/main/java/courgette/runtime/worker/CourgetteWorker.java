@@ -0,0 +1,13 @@
+package courgette.runtime.worker;
+
+import java.io.IOException;
+
+interface CourgetteWorker {
+    CourgetteWorkerResponse execute(CourgetteWorkerRequest request) throws IOException;
+
+    int getRunCount();
+
+    boolean isAlive();
+
+    void stop();
+}
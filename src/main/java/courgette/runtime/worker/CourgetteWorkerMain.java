@@ -0,0 +1,66 @@
+package courgette.runtime.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.core.cli.Main;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+public class CourgetteWorkerMain {
+    public static final String WORKER_PORT = "courgette.worker.port";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        final int port = Integer.parseInt(System.getProperty(WORKER_PORT));
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final CourgetteWorkerRequest request = MAPPER.readValue(line, CourgetteWorkerRequest.class);
+                final CourgetteWorkerResponse response = execute(request);
+
+                writer.write(MAPPER.writeValueAsString(response));
+                writer.newLine();
+                writer.flush();
+            }
+        }
+        System.exit(0);
+    }
+
+    static CourgetteWorkerResponse execute(CourgetteWorkerRequest request) {
+        final PrintStream out = System.out;
+        final PrintStream err = System.err;
+
+        try (PrintStream testOutput = createTestOutput(request)) {
+            if (testOutput != null) {
+                System.setOut(testOutput);
+                System.setErr(testOutput);
+            }
+            final String[] args = request.getArgs().toArray(new String[0]);
+            return new CourgetteWorkerResponse(Main.run(args, Thread.currentThread().getContextClassLoader()), null);
+        } catch (Throwable throwable) {
+            throwable.printStackTrace(err);
+            return new CourgetteWorkerResponse(-1, throwable.getMessage());
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+    }
+
+    private static PrintStream createTestOutput(CourgetteWorkerRequest request) throws IOException {
+        final OutputStream testOutput = CourgetteWorkerOutput.createTestOutput(request);
+        return testOutput != null ? new PrintStream(testOutput, true) : null;
+    }
+}
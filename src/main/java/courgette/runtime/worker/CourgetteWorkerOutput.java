@@ -0,0 +1,82 @@
+package courgette.runtime.worker;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+final class CourgetteWorkerOutput {
+    private final ThreadLocal<OutputStream> threadOutput = new ThreadLocal<>();
+    private final PrintStream out;
+    private final PrintStream err;
+
+    CourgetteWorkerOutput() {
+        this.out = System.out;
+        this.err = System.err;
+    }
+
+    static OutputStream createTestOutput(CourgetteWorkerRequest request) throws IOException {
+        if (request.getOutputFile() != null) {
+            return new FileOutputStream(request.getOutputFile());
+        }
+        if (request.isDiscardOutput()) {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Replaces System.out and System.err with streams that write to the output of the current thread's test run.
+     */
+    void install() {
+        System.setOut(new PrintStream(route(out), true));
+        System.setErr(new PrintStream(route(err), true));
+    }
+
+    void uninstall() {
+        System.setOut(out);
+        System.setErr(err);
+    }
+
+    void redirect(OutputStream outputStream) {
+        if (outputStream != null) {
+            threadOutput.set(outputStream);
+        }
+    }
+
+    void reset() {
+        threadOutput.remove();
+    }
+
+    private OutputStream route(OutputStream defaultOutput) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                current().write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                current().write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                current().flush();
+            }
+
+            private OutputStream current() {
+                final OutputStream outputStream = threadOutput.get();
+                return outputStream != null ? outputStream : defaultOutput;
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package courgette.runtime.worker;
+
+import courgette.api.CourgetteExecutionMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+public class CourgetteWorkerPool {
+    private final Map<Long, CourgetteWorker> workers = new ConcurrentHashMap<>();
+    private final CourgetteExecutionMode executionMode;
+    private final List<URL> classPath;
+    private final int recycleWorkerAfter;
+    private CourgetteWorkerOutput workerOutput;
+    private CourgetteCoordinator coordinator;
+
+    public CourgetteWorkerPool(CourgetteExecutionMode executionMode,
+                               List<String> classPath,
+                               int recycleWorkerAfter,
+                               String coordinatorHost,
+                               int coordinatorPort,
+                               String coordinatorToken) throws IOException {
+        this.executionMode = executionMode;
+        this.classPath = toClassPathUrls(classPath);
+        this.recycleWorkerAfter = recycleWorkerAfter;
+
+        if (executionMode.equals(CourgetteExecutionMode.IN_PROCESS)) {
+            workerOutput = new CourgetteWorkerOutput();
+            workerOutput.install();
+        } else if (executionMode.equals(CourgetteExecutionMode.DISTRIBUTED)) {
+            coordinator = new CourgetteCoordinator(coordinatorHost, coordinatorPort, coordinatorToken);
+        }
+    }
+
+    /**
+     * Runs the request on the worker owned by the calling thread, starting a new worker when required.
+     * The worker is recycled after a failed run or once it reaches the configured number of runs.
+     * In the distributed execution mode, the request is queued until a remote worker has run it.
+     */
+    public CourgetteWorkerResponse execute(IntFunction<ProcessBuilder> workerProcess, CourgetteWorkerRequest request) throws IOException, InterruptedException {
+        if (coordinator != null) {
+            return coordinator.execute(request);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+
+        CourgetteWorker worker = workers.get(threadId);
+
+        if (worker == null || !worker.isAlive()) {
+            worker = startWorker(workerProcess);
+            workers.put(threadId, worker);
+        }
+
+        final CourgetteWorkerResponse response;
+        try {
+            response = worker.execute(request);
+        } catch (IOException e) {
+            recycle(threadId);
+            throw e;
+        }
+
+        if (response.getExitCode() != 0 || (recycleWorkerAfter > 0 && worker.getRunCount() >= recycleWorkerAfter)) {
+            recycle(threadId);
+        }
+        return response;
+    }
+
+    public void shutdown() {
+        workers.keySet().forEach(this::recycle);
+
+        if (workerOutput != null) {
+            workerOutput.uninstall();
+        }
+
+        if (coordinator != null) {
+            coordinator.stop();
+        }
+    }
+
+    private CourgetteWorker startWorker(IntFunction<ProcessBuilder> workerProcess) throws IOException {
+        if (executionMode.equals(CourgetteExecutionMode.IN_PROCESS)) {
+            return new CourgetteClassLoaderWorker(classPath, workerOutput);
+        }
+        return CourgetteWorkerProcess.start(workerProcess);
+    }
+
+    private void recycle(long threadId) {
+        final CourgetteWorker worker = workers.remove(threadId);
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    private List<URL> toClassPathUrls(List<String> classPath) {
+        final List<URL> urls = new ArrayList<>();
+
+        for (String path : classPath) {
+            if (path.endsWith("*")) {
+                final File[] jars = new File(path.substring(0, path.length() - 1)).listFiles((dir, name) -> name.toLowerCase().endsWith(".jar"));
+                if (jars != null) {
+                    for (File jar : jars) {
+                        urls.add(toUrl(jar));
+                    }
+                }
+            } else if (!path.trim().isEmpty()) {
+                urls.add(toUrl(new File(path)));
+            }
+        }
+        return urls;
+    }
+
+    private URL toUrl(File file) {
+        try {
+            return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package courgette.runtime.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+class CourgetteWorkerProcess implements CourgetteWorker {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long CONNECT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private final Process process;
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+    private int runCount;
+
+    private CourgetteWorkerProcess(Process process, Socket socket) throws IOException {
+        this.process = process;
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    static CourgetteWorkerProcess start(IntFunction<ProcessBuilder> workerProcess) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout(1000);
+
+            final Process process = workerProcess.apply(serverSocket.getLocalPort()).start();
+            final long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+
+            while (process.isAlive() && System.currentTimeMillis() < deadline) {
+                try {
+                    return new CourgetteWorkerProcess(process, serverSocket.accept());
+                } catch (SocketTimeoutException ignored) {
+                }
+            }
+            process.destroyForcibly();
+            throw new IOException("Courgette worker did not connect (exit code: " + (process.isAlive() ? "n/a" : process.exitValue()) + ")");
+        }
+    }
+
+    @Override
+    public CourgetteWorkerResponse execute(CourgetteWorkerRequest request) throws IOException {
+        runCount++;
+        writer.write(MAPPER.writeValueAsString(request));
+        writer.newLine();
+        writer.flush();
+
+        final String response = reader.readLine();
+        if (response == null) {
+            throw new IOException("Courgette worker terminated unexpectedly");
+        }
+        return MAPPER.readValue(response, CourgetteWorkerResponse.class);
+    }
+
+    @Override
+    public int getRunCount() {
+        return runCount;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void stop() {
+        try {
+            socket.close();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (IOException | InterruptedException e) {
+            process.destroyForcibly();
+        }
+    }
+}
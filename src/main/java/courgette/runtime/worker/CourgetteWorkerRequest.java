@@ -0,0 +1,52 @@
+package courgette.runtime.worker;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourgetteWorkerRequest {
+    private List<String> args = new ArrayList<>();
+    private String outputFile;
+    private boolean discardOutput;
+    private Map<String, byte[]> inputFiles = new HashMap<>();
+    private List<String> outputFiles = new ArrayList<>();
+
+    public CourgetteWorkerRequest() {
+    }
+
+    public CourgetteWorkerRequest(List<String> args, String outputFile, boolean discardOutput) {
+        this.args = args;
+        this.outputFile = outputFile;
+        this.discardOutput = discardOutput;
+    }
+
+    public List<String> getArgs() {
+        return args;
+    }
+
+    public String getOutputFile() {
+        return outputFile;
+    }
+
+    public boolean isDiscardOutput() {
+        return discardOutput;
+    }
+
+    /**
+     * @return the files which a remote worker writes before the run
+     */
+    public Map<String, byte[]> getInputFiles() {
+        return inputFiles;
+    }
+
+    /**
+     * @return the files which a remote worker sends back after the run
+     */
+    public List<String> getOutputFiles() {
+        return outputFiles;
+    }
+}
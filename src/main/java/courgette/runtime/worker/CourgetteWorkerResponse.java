@@ -0,0 +1,33 @@
+package courgette.runtime.worker;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourgetteWorkerResponse {
+    private int exitCode;
+    private String error;
+    private Map<String, byte[]> outputFiles = new HashMap<>();
+
+    public CourgetteWorkerResponse() {
+    }
+
+    public CourgetteWorkerResponse(int exitCode, String error) {
+        this.exitCode = exitCode;
+        this.error = error;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Map<String, byte[]> getOutputFiles() {
+        return outputFiles;
+    }
+}
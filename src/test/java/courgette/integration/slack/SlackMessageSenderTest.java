@@ -0,0 +1,101 @@
+package courgette.integration.slack;
+
+import courgette.api.CourgetteOptions;
+import courgette.api.CourgetteRunLevel;
+import courgette.api.CucumberOptions;
+import courgette.runtime.CourgetteProperties;
+import courgette.runtime.CourgetteRunResult;
+import courgette.runtime.CourgetteSlackOptions;
+import courgette.runtime.event.CourgetteEvent;
+import courgette.runtime.event.CourgetteEventHolder;
+import io.cucumber.core.gherkin.Feature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static courgette.runtime.CourgetteTestFixtures.createFeature;
+import static courgette.runtime.CourgetteTestFixtures.createProperties;
+import static courgette.runtime.CourgetteTestFixtures.createRunResult;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SlackMessageSenderTest {
+    private SlackStubServer slack;
+    private SlackMessageSender messageSender;
+    private CourgetteProperties courgetteProperties;
+    private Feature feature;
+
+    @CourgetteOptions(runLevel = CourgetteRunLevel.SCENARIO, cucumberOptions = @CucumberOptions(features = "features"))
+    private static class ScenarioRunLevel {
+    }
+
+    @Before
+    public void startSlack() throws Exception {
+        slack = new SlackStubServer();
+        courgetteProperties = createProperties(ScenarioRunLevel.class);
+        feature = createFeature("slack", 25);
+
+        final CourgetteSlackOptions slackOptions = new CourgetteSlackOptions(slack.getWebhookUrl(),
+                Collections.singletonList("courgette"), "", Collections.singletonList(CourgetteEvent.ALL));
+
+        messageSender = new SlackMessageSender(new SlackService(slack.getWebhookUrl()), slackOptions);
+    }
+
+    @After
+    public void stopSlack() {
+        messageSender.close();
+        slack.close();
+    }
+
+    @Test
+    public void resultsArePostedAsADigestBeforeTheNextMessage() {
+        messageSender.send(result(CourgetteEvent.TEST_PASSED, 0, CourgetteRunResult.Status.PASSED));
+        messageSender.send(result(CourgetteEvent.TEST_PASSED, 1, CourgetteRunResult.Status.PASSED));
+        messageSender.send(result(CourgetteEvent.TEST_FAILED, 2, CourgetteRunResult.Status.FAILED));
+
+        assertTrue(slack.getRequests().isEmpty());
+
+        messageSender.send(new CourgetteEventHolder(CourgetteEvent.TEST_RUN_FINISHED, courgetteProperties));
+
+        final List<SlackStubServer.Request> requests = slack.getRequests();
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(0).body.contains("Test Results"));
+        assertTrue(requests.get(0).body.contains("*Passed:* 2, *Failed:* 1, *Rerun:* 0"));
+        assertTrue(requests.get(1).body.contains("Test Run Finished"));
+    }
+
+    @Test
+    public void digestIsPostedOnceItIsFull() {
+        for (int i = 0; i < 25; i++) {
+            messageSender.send(result(CourgetteEvent.TEST_PASSED, i, CourgetteRunResult.Status.PASSED));
+        }
+
+        List<SlackStubServer.Request> requests = slack.getRequests();
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).body.contains("*Passed:* 20, *Failed:* 0"));
+
+        messageSender.flush();
+
+        requests = slack.getRequests();
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(1).body.contains("*Passed:* 5, *Failed:* 0"));
+    }
+
+    @Test
+    public void singleResultIsPostedAsAMessage() {
+        messageSender.send(result(CourgetteEvent.TEST_FAILED, 0, CourgetteRunResult.Status.FAILED));
+        messageSender.flush();
+
+        final List<SlackStubServer.Request> requests = slack.getRequests();
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).body.contains("Test Failed"));
+    }
+
+    private CourgetteEventHolder result(CourgetteEvent event, int scenario, CourgetteRunResult.Status status) {
+        final Integer lineId = feature.getPickles().get(scenario).getLocation().getLine();
+        return new CourgetteEventHolder(event, courgetteProperties, null, createRunResult(feature, lineId, status));
+    }
+}
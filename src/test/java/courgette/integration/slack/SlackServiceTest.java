@@ -0,0 +1,72 @@
+package courgette.integration.slack;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SlackServiceTest {
+    private SlackStubServer slack;
+
+    @Before
+    public void startSlack() throws Exception {
+        slack = new SlackStubServer();
+    }
+
+    @After
+    public void stopSlack() {
+        slack.close();
+    }
+
+    @Test
+    public void messagesAfterTheBurstAreRateLimited() {
+        final SlackService slackService = new SlackService(slack.getWebhookUrl());
+        final long start = System.nanoTime();
+
+        for (int i = 1; i <= 5; i++) {
+            slackService.postMessage("{\"text\":\"message " + i + "\"}");
+        }
+
+        final List<SlackStubServer.Request> requests = slack.getRequests();
+        assertEquals(5, requests.size());
+
+        // three messages can be sent straight away, then one message each second
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(requests.get(2).receivedAt - start) < 900);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(requests.get(3).receivedAt - start) >= 1000);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(requests.get(4).receivedAt - start) >= 2000);
+    }
+
+    @Test
+    public void rateLimitedMessageIsRetriedAfterTheRetryAfterTime() {
+        slack.respondWith(429, "2");
+
+        final SlackService slackService = new SlackService(slack.getWebhookUrl());
+        slackService.postMessage("{\"text\":\"retried\"}");
+
+        final List<SlackStubServer.Request> requests = slack.getRequests();
+        assertEquals(2, requests.size());
+        assertEquals(requests.get(0).body, requests.get(1).body);
+        assertTrue(millisBetween(requests.get(0), requests.get(1)) >= 1900);
+    }
+
+    @Test
+    public void rateLimitedMessageIsRetriedAtMostThreeTimes() {
+        for (int i = 0; i < 5; i++) {
+            slack.respondWith(429, "0");
+        }
+
+        final SlackService slackService = new SlackService(slack.getWebhookUrl());
+        slackService.postMessage("{\"text\":\"dropped\"}");
+
+        assertEquals(4, slack.getRequests().size());
+    }
+
+    private long millisBetween(SlackStubServer.Request first, SlackStubServer.Request second) {
+        return TimeUnit.NANOSECONDS.toMillis(second.receivedAt - first.receivedAt);
+    }
+}
@@ -0,0 +1,89 @@
+package courgette.integration.slack;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A local Slack incoming webhook which records the posted messages and answers with the queued responses, or 200 when none are queued.
+ */
+class SlackStubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final List<Request> requests = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<Integer> statusCodes = new ConcurrentLinkedQueue<>();
+    private volatile String retryAfter;
+
+    SlackStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String getWebhookUrl() {
+        return String.format("http://%s:%d/webhook", server.getAddress().getHostString(), server.getAddress().getPort());
+    }
+
+    void respondWith(int statusCode, String retryAfter) {
+        this.statusCodes.add(statusCode);
+        this.retryAfter = retryAfter;
+    }
+
+    List<Request> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.add(new Request(System.nanoTime(), new String(readBody(exchange.getRequestBody()), StandardCharsets.UTF_8)));
+
+            final Integer statusCode = statusCodes.poll();
+
+            if (statusCode != null && statusCode == 429 && retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            final byte[] body = (statusCode == null || statusCode == 200 ? "ok" : "rate_limited").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(statusCode != null ? statusCode : 200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] readBody(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+        return body.toByteArray();
+    }
+
+    static class Request {
+        final long receivedAt;
+        final String body;
+
+        Request(long receivedAt, String body) {
+            this.receivedAt = receivedAt;
+            this.body = body;
+        }
+    }
+}
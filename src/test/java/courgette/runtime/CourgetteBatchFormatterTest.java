@@ -0,0 +1,151 @@
+package courgette.runtime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.core.cli.Main;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CourgetteBatchFormatterTest {
+    private static final List<String> SCENARIOS = Arrays.asList("First", "Second", "Third");
+    private static final List<Integer> LINES = Arrays.asList(3, 6, 9);
+    private static final List<String> STATUSES = Arrays.asList("PASSED", "FAILED", "PASSED");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private File featureFile;
+    private File batchFile;
+    private File resultFile;
+
+    @Before
+    public void createBatch() throws IOException {
+        featureFile = temporaryFolder.newFile("batch.feature");
+        Files.write(featureFile.toPath(), String.format("Feature: Batch%n%n" +
+                "  Scenario: First%n    Given a passing step%n%n" +
+                "  Scenario: Second%n    Given a failing step%n%n" +
+                "  Scenario: Third%n    Given a passing step%n").getBytes(StandardCharsets.UTF_8));
+
+        batchFile = temporaryFolder.newFile("batch.properties");
+        resultFile = new File(temporaryFolder.getRoot(), "batch-result.properties");
+
+        final Properties batch = new Properties();
+        batch.setProperty(CourgetteScenarioBatch.SCENARIOS, String.valueOf(SCENARIOS.size()));
+        batch.setProperty(CourgetteScenarioBatch.RESULT_FILE, resultFile.getPath());
+
+        for (int scenario = 0; scenario < SCENARIOS.size(); scenario++) {
+            batch.setProperty(scenario + ".uri", featureFile.toPath().toUri().toString());
+            batch.setProperty(scenario + ".line", String.valueOf(LINES.get(scenario)));
+            batch.setProperty(scenario + ".plugin.0", "json:" + reportFile(scenario, "json").getPath());
+            batch.setProperty(scenario + ".plugin.1", "message:" + reportFile(scenario, "ndjson").getPath());
+            batch.setProperty(scenario + ".plugin.2", "junit:" + reportFile(scenario, "xml").getPath());
+        }
+
+        try (OutputStream outputStream = new FileOutputStream(batchFile)) {
+            batch.store(outputStream, null);
+        }
+    }
+
+    @Test
+    public void eachScenarioOfTheBatchHasItsOwnReportsAndResult() throws IOException {
+        final List<String> args = new ArrayList<>(Arrays.asList(
+                "--glue", "courgette.runtime.worker.glue",
+                "--plugin", CourgetteBatchFormatter.class.getName() + ":" + batchFile.getPath()));
+        LINES.forEach(line -> args.add(featureFile.getPath() + ":" + line));
+
+        final byte exitCode = Main.run(args.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+        assertEquals(1, exitCode);
+
+        final Properties results = new Properties();
+        try (InputStream inputStream = new FileInputStream(resultFile)) {
+            results.load(inputStream);
+        }
+
+        for (int scenario = 0; scenario < SCENARIOS.size(); scenario++) {
+            final String name = SCENARIOS.get(scenario);
+            final boolean passed = STATUSES.get(scenario).equals("PASSED");
+
+            assertEquals(STATUSES.get(scenario), results.getProperty(scenario + ".status"));
+            assertNotNull(results.getProperty(scenario + ".start"));
+            assertNotNull(results.getProperty(scenario + ".end"));
+
+            assertJsonReport(reportFile(scenario, "json"), name, passed);
+            assertNdJsonReport(reportFile(scenario, "ndjson"), name);
+            assertJUnitReport(reportFile(scenario, "xml"), name, passed);
+        }
+    }
+
+    private void assertJsonReport(File report, String name, boolean passed) throws IOException {
+        final JsonNode features = mapper.readTree(report);
+        assertEquals(1, features.size());
+
+        final JsonNode elements = features.get(0).get("elements");
+        assertEquals(1, elements.size());
+        assertEquals(name, elements.get(0).get("name").asText());
+        assertEquals(passed ? "passed" : "failed", elements.get(0).get("steps").get(0).get("result").get("status").asText());
+    }
+
+    /**
+     * The test run of each scenario report starts when the scenario starts and finishes when the scenario finishes.
+     */
+    private void assertNdJsonReport(File report, String name) throws IOException {
+        final List<JsonNode> messages = new ArrayList<>();
+        for (String line : Files.readAllLines(report.toPath(), StandardCharsets.UTF_8)) {
+            messages.add(mapper.readTree(line));
+        }
+
+        final List<JsonNode> testCases = messagesOf(messages, "testCase");
+        assertEquals(1, testCases.size());
+        assertEquals(1, messagesOf(messages, "testCaseStarted").size());
+        assertEquals(1, messagesOf(messages, "testCaseFinished").size());
+        assertEquals(1, messagesOf(messages, "testRunStarted").size());
+        assertEquals(1, messagesOf(messages, "testRunFinished").size());
+
+        final String pickleId = testCases.get(0).get("pickleId").asText();
+        assertTrue(messagesOf(messages, "pickle").stream()
+                .anyMatch(pickle -> pickle.get("id").asText().equals(pickleId) && pickle.get("name").asText().equals(name)));
+
+        assertEquals(messagesOf(messages, "testCaseStarted").get(0).get("timestamp"), messagesOf(messages, "testRunStarted").get(0).get("timestamp"));
+        assertEquals(messagesOf(messages, "testCaseFinished").get(0).get("timestamp"), messagesOf(messages, "testRunFinished").get(0).get("timestamp"));
+    }
+
+    private void assertJUnitReport(File report, String name, boolean passed) throws IOException {
+        final String xml = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+
+        assertTrue(xml.contains("tests=\"1\""));
+        assertTrue(xml.contains("failures=\"" + (passed ? 0 : 1) + "\""));
+        assertTrue(xml.contains("name=\"" + name + "\""));
+        SCENARIOS.stream().filter(scenario -> !scenario.equals(name))
+                .forEach(scenario -> assertTrue(!xml.contains("name=\"" + scenario + "\"")));
+    }
+
+    private List<JsonNode> messagesOf(List<JsonNode> messages, String type) {
+        final List<JsonNode> messagesOfType = new ArrayList<>();
+        messages.stream().filter(message -> message.has(type)).forEach(message -> messagesOfType.add(message.get(type)));
+        return messagesOfType;
+    }
+
+    private File reportFile(int scenario, String extension) {
+        return new File(temporaryFolder.getRoot(), "scenario-" + scenario + "." + extension);
+    }
+}
@@ -0,0 +1,124 @@
+package courgette.runtime;
+
+import courgette.api.CourgetteEventBackpressure;
+import courgette.api.CourgetteOptions;
+import courgette.api.CourgetteRunLevel;
+import courgette.api.CucumberOptions;
+import courgette.runtime.event.CourgetteEvent;
+import courgette.runtime.event.CourgetteEventHolder;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.Pickle;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static courgette.runtime.CourgetteTestFixtures.createFeature;
+import static courgette.runtime.CourgetteTestFixtures.createProperties;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CourgetteEventChannelTest {
+    private static final int SCENARIOS = 50;
+    private static final int RESULTS_OVER_CAPACITY = 3000;
+
+    @CourgetteOptions(runLevel = CourgetteRunLevel.SCENARIO, cucumberOptions = @CucumberOptions(features = "features"))
+    private static class ScenarioRunLevel {
+    }
+
+    @Test
+    public void blockDeliversTheResultOfEveryScenario() throws Exception {
+        final CourgetteProperties courgetteProperties = createProperties(ScenarioRunLevel.class);
+        final List<CourgetteRunnerInfo> runners = createRunners(courgetteProperties, SCENARIOS);
+
+        final SlowPublisher publisher = new SlowPublisher();
+        final CourgetteEventChannel channel = new CourgetteEventChannel(publisher, CourgetteEventBackpressure.BLOCK);
+
+        // the publisher waits on the first event, so the results of the scenarios are pending while they are published
+        channel.publish(new CourgetteEventHolder(CourgetteEvent.TEST_RUN_STARTED, courgetteProperties));
+
+        for (int i = 0; i < runners.size(); i++) {
+            final CourgetteEvent event = i % 2 == 0 ? CourgetteEvent.TEST_PASSED : CourgetteEvent.TEST_FAILED;
+            channel.publish(new CourgetteEventHolder(event, courgetteProperties, runners.get(i), null));
+        }
+
+        publisher.release.countDown();
+        channel.close();
+
+        assertEquals(SCENARIOS / 2, publisher.count(CourgetteEvent.TEST_PASSED));
+        assertEquals(SCENARIOS / 2, publisher.count(CourgetteEvent.TEST_FAILED));
+        assertFalse(channel.hasLostEvents());
+    }
+
+    @Test
+    public void dropOldestNeverDropsTheTestRunEvents() throws Exception {
+        final CourgetteProperties courgetteProperties = createProperties(ScenarioRunLevel.class);
+        final List<CourgetteRunnerInfo> runners = createRunners(courgetteProperties, 1);
+
+        final SlowPublisher publisher = new SlowPublisher();
+        final CourgetteEventChannel channel = new CourgetteEventChannel(publisher, CourgetteEventBackpressure.DROP_OLDEST);
+
+        // the publisher waits on the first event, so the test run started event is the oldest pending event once the queue is full
+        channel.publish(new CourgetteEventHolder(CourgetteEvent.TEST_PASSED, courgetteProperties, runners.get(0), null));
+        assertTrue(publisher.received.await(10, TimeUnit.SECONDS));
+        channel.publish(new CourgetteEventHolder(CourgetteEvent.TEST_RUN_STARTED, courgetteProperties));
+
+        for (int i = 0; i < RESULTS_OVER_CAPACITY; i++) {
+            channel.publish(new CourgetteEventHolder(CourgetteEvent.TEST_FAILED, courgetteProperties, runners.get(0), null));
+        }
+
+        channel.publish(new CourgetteEventHolder(CourgetteEvent.TEST_RUN_FINISHED, courgetteProperties));
+        channel.publish(new CourgetteEventHolder(CourgetteEvent.TEST_RUN_SUMMARY, courgetteProperties, CourgetteTestStatistics.current()));
+
+        publisher.release.countDown();
+        channel.close();
+
+        assertTrue(channel.hasLostEvents());
+        assertTrue(publisher.count(CourgetteEvent.TEST_FAILED) < RESULTS_OVER_CAPACITY);
+
+        final List<CourgetteEvent> delivered = publisher.delivered;
+        assertEquals(CourgetteEvent.TEST_RUN_STARTED, delivered.get(1));
+        assertEquals(CourgetteEvent.TEST_RUN_FINISHED, delivered.get(delivered.size() - 2));
+        assertEquals(CourgetteEvent.TEST_RUN_SUMMARY, delivered.get(delivered.size() - 1));
+        assertEquals(1, publisher.count(CourgetteEvent.TEST_RUN_STARTED));
+    }
+
+    private List<CourgetteRunnerInfo> createRunners(CourgetteProperties courgetteProperties, int scenarios) {
+        final Feature feature = createFeature("event-channel", scenarios);
+
+        return feature.getPickles().stream()
+                .map(Pickle::getLocation)
+                .map(location -> new CourgetteRunnerInfo(courgetteProperties, feature, location.getLine()))
+                .collect(Collectors.toList());
+    }
+
+    private static class SlowPublisher implements CourgettePublisher {
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final Map<CourgetteEvent, AtomicInteger> events = new ConcurrentHashMap<>();
+        private final List<CourgetteEvent> delivered = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(CourgetteEventHolder eventHolder) {
+            received.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.computeIfAbsent(eventHolder.getCourgetteEvent(), event -> new AtomicInteger()).incrementAndGet();
+            delivered.add(eventHolder.getCourgetteEvent());
+        }
+
+        int count(CourgetteEvent event) {
+            return events.getOrDefault(event, new AtomicInteger()).get();
+        }
+    }
+}
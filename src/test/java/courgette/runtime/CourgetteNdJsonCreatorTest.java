@@ -0,0 +1,95 @@
+package courgette.runtime;
+
+import io.cucumber.core.cli.Main;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Pickle;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CourgetteNdJsonCreatorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<Throwable> errors = new ArrayList<>();
+    private File featureFile;
+
+    @Before
+    public void createFeature() throws IOException {
+        featureFile = temporaryFolder.newFile("ndjson.feature");
+        Files.write(featureFile.toPath(), String.format("Feature: NdJson%n%n" +
+                "  Scenario: First%n    Given a passing step%n%n" +
+                "  Scenario: Second%n    Given a passing step%n%n" +
+                "  Scenario: Third%n    Given a passing step%n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void truncatedReportIsSkippedAndTheOtherReportsAreMerged() throws IOException {
+        final File truncatedReport = runScenario(6);
+        final byte[] content = Files.readAllBytes(truncatedReport.toPath());
+        Files.write(truncatedReport.toPath(), Arrays.copyOf(content, content.length / 2));
+
+        final List<Iterable<Envelope>> reports = Arrays.asList(
+                CourgetteNdJsonCreator.readMessages(runScenario(3)),
+                CourgetteNdJsonCreator.readMessages(truncatedReport),
+                CourgetteNdJsonCreator.readMessages(runScenario(9)));
+
+        final List<Envelope> messages = new CourgetteNdJsonCreator(reports, errors::add).createScenarioMessages();
+
+        assertEquals(Arrays.asList("First", "Third"), pickleNames(messages));
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).getMessage().contains(truncatedReport.getName()));
+    }
+
+    @Test
+    public void malformedReportIsSkippedAndTheOtherReportsAreMerged() throws IOException {
+        final File malformedReport = temporaryFolder.newFile("malformed.ndjson");
+        Files.write(malformedReport.toPath(), "{\"meta\": not json}\n".getBytes(StandardCharsets.UTF_8));
+
+        final List<Iterable<Envelope>> reports = Arrays.asList(
+                CourgetteNdJsonCreator.readMessages(malformedReport),
+                CourgetteNdJsonCreator.readMessages(runScenario(3)));
+
+        final List<Envelope> messages = new CourgetteNdJsonCreator(reports, errors::add).createFeatureMessages();
+
+        assertEquals(1, messages.stream().filter(envelope -> envelope.getTestCase().isPresent()).count());
+        assertEquals(1, errors.size());
+    }
+
+    private File runScenario(int line) throws IOException {
+        final File report = temporaryFolder.newFile("scenario-" + line + ".ndjson");
+
+        final byte exitCode = Main.run(new String[]{
+                "--glue", "courgette.runtime.worker.glue",
+                "--plugin", "message:" + report.getPath(),
+                featureFile.getPath() + ":" + line
+        }, Thread.currentThread().getContextClassLoader());
+
+        assertEquals(0, exitCode);
+        return report;
+    }
+
+    private List<String> pickleNames(List<Envelope> messages) {
+        return messages.stream()
+                .map(Envelope::getPickle)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .map(Pickle::getName)
+                .collect(Collectors.toList());
+    }
+}
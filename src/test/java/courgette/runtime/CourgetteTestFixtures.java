@@ -0,0 +1,56 @@
+package courgette.runtime;
+
+import courgette.api.CourgetteOptions;
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.resource.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public final class CourgetteTestFixtures {
+
+    private CourgetteTestFixtures() {
+    }
+
+    /**
+     * Creates the properties of a test run from the {@link CourgetteOptions} annotation of the given class.
+     */
+    public static CourgetteProperties createProperties(Class<?> optionsClass) {
+        final CourgetteOptions courgetteOptions = optionsClass.getAnnotation(CourgetteOptions.class);
+        return new CourgetteProperties(courgetteOptions, UUID.randomUUID().toString(), courgetteOptions.threads());
+    }
+
+    /**
+     * Creates a feature with the given number of scenarios, each with a single step.
+     */
+    public static Feature createFeature(String name, int scenarios) {
+        final StringBuilder source = new StringBuilder("Feature: ").append(name).append("\n");
+        for (int i = 1; i <= scenarios; i++) {
+            source.append("\n  Scenario: Scenario ").append(i).append("\n    Given a step\n");
+        }
+
+        final byte[] content = source.toString().getBytes(StandardCharsets.UTF_8);
+        final URI uri = new File("features", name + ".feature").toURI();
+
+        return new FeatureParser(UUID::randomUUID).parseResource(new Resource() {
+            @Override
+            public URI getUri() {
+                return uri;
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(content);
+            }
+        }).orElseThrow(IllegalStateException::new);
+    }
+
+    public static CourgetteRunResult createRunResult(Feature feature, Integer lineId, CourgetteRunResult.Status status) {
+        return new CourgetteRunResult(feature, lineId, feature.getUri().toString(), status);
+    }
+}
@@ -0,0 +1,182 @@
+package courgette.runtime.worker;
+
+import courgette.runtime.CourgetteException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CourgetteCoordinatorTest {
+    private static final String TOKEN = "coordinator-test-token";
+    private static final int WORKERS = 2;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private CourgetteCoordinator coordinator;
+    private final List<Process> workers = new ArrayList<>();
+
+    @Before
+    public void startCoordinator() throws IOException {
+        coordinator = new CourgetteCoordinator("127.0.0.1", 0, TOKEN);
+    }
+
+    @After
+    public void stopCoordinator() {
+        coordinator.stop();
+        workers.forEach(Process::destroyForcibly);
+    }
+
+    @Test
+    public void remoteWorkersSendBackTheResultsAndReportsOfEachRun() throws Exception {
+        for (int i = 0; i < WORKERS; i++) {
+            workers.add(startWorker(TOKEN));
+        }
+
+        final List<CourgetteWorkerRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            requests.add(createRequest("feature" + i, i % 3 == 0 ? "a failing step" : "a passing step"));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        try {
+            final List<Future<CourgetteWorkerResponse>> responses = new ArrayList<>();
+            for (CourgetteWorkerRequest request : requests) {
+                responses.add(executor.submit(() -> coordinator.execute(request)));
+            }
+
+            for (int i = 0; i < requests.size(); i++) {
+                final CourgetteWorkerResponse response = responses.get(i).get(2, TimeUnit.MINUTES);
+                final boolean failing = (i + 1) % 3 == 0;
+
+                assertEquals(failing ? 1 : 0, response.getExitCode());
+
+                final File report = new File(requests.get(i).getOutputFiles().get(0));
+                assertTrue("missing report " + report, report.isFile());
+
+                final String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+                assertTrue(json.contains("Feature feature" + (i + 1)));
+                assertTrue(json.contains(failing ? "\"failed\"" : "\"passed\""));
+
+                // the workers write the files of a run in their own directory rather than at the paths of the coordinator
+                requests.get(i).getInputFiles().keySet().forEach(inputFile -> assertFalse(new File(inputFile).exists()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        coordinator.stop();
+
+        for (Process worker : workers) {
+            assertTrue(worker.waitFor(30, TimeUnit.SECONDS));
+            assertEquals(0, worker.exitValue());
+        }
+    }
+
+    @Test
+    public void workerWithoutTheTokenIsRejected() throws Exception {
+        final Process worker = startWorker("wrong-token");
+        workers.add(worker);
+
+        assertTrue(worker.waitFor(30, TimeUnit.SECONDS));
+        assertEquals(1, worker.exitValue());
+
+        assertEquals(401, post(CourgetteCoordinator.WORK_PATH, null));
+    }
+
+    @Test
+    public void resultOfAnUnknownLeaseIsRejected() throws Exception {
+        assertEquals(410, post(CourgetteCoordinator.RESULT_PATH + "unknown-lease", TOKEN, "{\"exitCode\":0}"));
+        assertEquals(410, post(CourgetteCoordinator.HEARTBEAT_PATH + "unknown-lease", TOKEN));
+    }
+
+    @Test
+    public void coordinatorBindsToTheLoopbackAddressByDefault() throws Exception {
+        final CourgetteCoordinator defaultCoordinator = new CourgetteCoordinator("", 0, "");
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), defaultCoordinator.getPort())) {
+            assertTrue(socket.isConnected());
+        } finally {
+            defaultCoordinator.stop();
+        }
+    }
+
+    @Test(expected = CourgetteException.class)
+    public void coordinatorRequiresATokenToBindToAllAddresses() throws Exception {
+        new CourgetteCoordinator("0.0.0.0", 0, "");
+    }
+
+    private CourgetteWorkerRequest createRequest(String name, String step) throws IOException {
+        final File featureFile = new File(temporaryFolder.getRoot(), "features/" + name + ".feature");
+        final File reportFile = new File(temporaryFolder.getRoot(), "reports/" + name + ".json");
+
+        final List<String> args = Arrays.asList(
+                "--glue", "courgette.runtime.worker.glue",
+                "--plugin", "json:" + reportFile.getPath(),
+                featureFile.getPath());
+
+        final CourgetteWorkerRequest request = new CourgetteWorkerRequest(args, null, true);
+        request.getInputFiles().put(featureFile.getPath(),
+                String.format("Feature: Feature %s%n%n  Scenario: Scenario%n    Given %s%n", name, step).getBytes(StandardCharsets.UTF_8));
+        request.getOutputFiles().add(reportFile.getPath());
+        return request;
+    }
+
+    private Process startWorker(String token) throws IOException {
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        final ProcessBuilder processBuilder = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                CourgetteRemoteWorkerMain.class.getName(),
+                "http://127.0.0.1:" + coordinator.getPort());
+
+        processBuilder.environment().put(CourgetteRemoteWorkerMain.COORDINATOR_TOKEN_ENV, token);
+        processBuilder.redirectErrorStream(true);
+        processBuilder.redirectOutput(temporaryFolder.newFile());
+        return processBuilder.start();
+    }
+
+    private int post(String path, String token) throws IOException {
+        return post(path, token, null);
+    }
+
+    private int post(String path, String token, String body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + coordinator.getPort() + path).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            if (token != null) {
+                connection.setRequestProperty(CourgetteCoordinator.AUTHORIZATION_HEADER, CourgetteCoordinator.BEARER + token);
+            }
+            if (body != null) {
+                connection.setDoOutput(true);
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
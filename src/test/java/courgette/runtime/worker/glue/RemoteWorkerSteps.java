@@ -0,0 +1,15 @@
+package courgette.runtime.worker.glue;
+
+import io.cucumber.java.en.Given;
+
+public class RemoteWorkerSteps {
+
+    @Given("a passing step")
+    public void aPassingStep() {
+    }
+
+    @Given("a failing step")
+    public void aFailingStep() {
+        throw new AssertionError("failing step");
+    }
+}